@@ -89,7 +89,7 @@ public class OivTestActivity extends AppCompatActivity implements AppBarLayout.O
     public void onOffsetChanged(AppBarLayout appBarLayout, int verticalOffset) {
         float percent = (float) Math.abs(verticalOffset) / (float) appBarLayout.getTotalScrollRange();
         mExpectAnim.setPercent(percent);
-        oivToDoNum.enableBodyText(false, percent);
+        oivToDoNum.postBodyTextPercent(false, percent);
     }
 
     @Override
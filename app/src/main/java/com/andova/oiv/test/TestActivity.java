@@ -28,6 +28,5 @@ public class TestActivity extends AppCompatActivity {
                 .setShadowSide(ShadowProperty.BOTTOM);
         ShadowViewDrawable sd = new ShadowViewDrawable(sp, Color.WHITE, 0, 0);
         ViewCompat.setBackground(findViewById(R.id.oiv_test), sd);
-        ViewCompat.setLayerType(findViewById(R.id.oiv_test), ViewCompat.LAYER_TYPE_SOFTWARE, null);
     }
 }
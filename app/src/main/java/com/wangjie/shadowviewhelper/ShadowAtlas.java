@@ -0,0 +1,102 @@
+package com.wangjie.shadowviewhelper;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+/**
+ * 进程内共享的阴影图集：相同颜色、模糊半径与圆角的阴影只由{@link ShadowPatch}模糊一次，
+ * 图集只负责内存预算与命中统计
+ */
+public final class ShadowAtlas {
+    /**
+     * 默认内存预算，单位字节
+     */
+    private static final int DEFAULT_MAX_BYTES = 2 * 1024 * 1024;
+
+    private static final LruCache<Key, Bitmap> sCache = new LruCache<Key, Bitmap>(DEFAULT_MAX_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+            return value.getRowBytes() * value.getHeight();
+        }
+    };
+
+    private ShadowAtlas() {
+    }
+
+    /**
+     * @param maxBytes 图集占用内存上限，单位字节
+     */
+    public static void setMaxBytes(int maxBytes) {
+        sCache.resize(maxBytes);
+    }
+
+    public static int sizeBytes() {
+        return sCache.size();
+    }
+
+    public static int hitCount() {
+        return sCache.hitCount();
+    }
+
+    public static int missCount() {
+        return sCache.missCount();
+    }
+
+    public static int evictionCount() {
+        return sCache.evictionCount();
+    }
+
+    public static float hitRate() {
+        int hit = sCache.hitCount();
+        int total = hit + sCache.missCount();
+        return total == 0 ? 0f : (float) hit / total;
+    }
+
+    public static void clear() {
+        sCache.evictAll();
+    }
+
+    static Bitmap obtain(ShadowProperty shadowProperty, float rx, float ry) {
+        Key key = new Key(shadowProperty, rx, ry);
+        Bitmap bitmap = sCache.get(key);
+        if (bitmap != null) return bitmap;
+        bitmap = new ShadowPatch(key.shadowRadius, rx, ry).rasterize(key.shadowColor);
+        sCache.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * 偏移与阴影边只影响绘制位置，不参与区分位图
+     */
+    private static final class Key {
+        private final int shadowColor;
+        private final int shadowRadius;
+        private final float rx;
+        private final float ry;
+
+        Key(ShadowProperty shadowProperty, float rx, float ry) {
+            this.shadowColor = shadowProperty.getShadowColor();
+            this.shadowRadius = shadowProperty.getShadowRadius();
+            this.rx = rx;
+            this.ry = ry;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return shadowColor == key.shadowColor && shadowRadius == key.shadowRadius
+                    && Float.compare(key.rx, rx) == 0 && Float.compare(key.ry, ry) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = shadowColor;
+            result = 31 * result + shadowRadius;
+            result = 31 * result + Float.floatToIntBits(rx);
+            result = 31 * result + Float.floatToIntBits(ry);
+            return result;
+        }
+    }
+}
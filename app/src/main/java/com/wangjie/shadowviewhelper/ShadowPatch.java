@@ -0,0 +1,83 @@
+package com.wangjie.shadowviewhelper;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * 阴影九宫格：按模糊半径、颜色与圆角光栅化一张小位图，绘制时把四角原样贴出、中间一像素拉伸到形状四周
+ * <p>
+ * 位图由{@link ShadowAtlas}缓存
+ */
+final class ShadowPatch {
+    private final int radius;
+    private final float rx;
+    private final float ry;
+    /**
+     * 角的宽高：向外的模糊范围 + 圆角 + 向内的模糊范围
+     */
+    private final int patchX;
+    private final int patchY;
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    ShadowPatch(int radius, float rx, float ry) {
+        this.radius = radius;
+        this.rx = rx;
+        this.ry = ry;
+        patchX = 2 * radius + (int) Math.ceil(rx);
+        patchY = 2 * radius + (int) Math.ceil(ry);
+    }
+
+    Bitmap rasterize(int color) {
+        int width = 2 * patchX + 1;
+        int height = 2 * patchY + 1;
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Paint shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        shadowPaint.setColor(color);
+        if (radius > 0) shadowPaint.setMaskFilter(new BlurMaskFilter(radius, BlurMaskFilter.Blur.NORMAL));
+        new Canvas(bitmap).drawRoundRect(new RectF(radius, radius, width - radius, height - radius),
+                rx, ry, shadowPaint);
+        return bitmap;
+    }
+
+    /**
+     * 将{@link #rasterize(int)}得到的位图偏移后拉伸绘制到{@code shape}四周
+     */
+    void draw(Canvas canvas, Bitmap bitmap, RectF shape, int dx, int dy) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        float left = shape.left + dx - radius;
+        float top = shape.top + dy - radius;
+        float right = shape.right + dx + radius;
+        float bottom = shape.bottom + dy + radius;
+        float cornerX = Math.min(patchX, (right - left) / 2);
+        float cornerY = Math.min(patchY, (bottom - top) / 2);
+        float x1 = left + cornerX, x2 = right - cornerX;
+        float y1 = top + cornerY, y2 = bottom - cornerY;
+
+        // 四个角
+        drawPatch(canvas, bitmap, 0, 0, patchX, patchY, left, top, x1, y1);
+        drawPatch(canvas, bitmap, width - patchX, 0, width, patchY, x2, top, right, y1);
+        drawPatch(canvas, bitmap, 0, height - patchY, patchX, height, left, y2, x1, bottom);
+        drawPatch(canvas, bitmap, width - patchX, height - patchY, width, height, x2, y2, right, bottom);
+        // 四条边与中心，拉伸中间一像素
+        drawPatch(canvas, bitmap, patchX, 0, patchX + 1, patchY, x1, top, x2, y1);
+        drawPatch(canvas, bitmap, patchX, height - patchY, patchX + 1, height, x1, y2, x2, bottom);
+        drawPatch(canvas, bitmap, 0, patchY, patchX, patchY + 1, left, y1, x1, y2);
+        drawPatch(canvas, bitmap, width - patchX, patchY, width, patchY + 1, x2, y1, right, y2);
+        drawPatch(canvas, bitmap, patchX, patchY, patchX + 1, patchY + 1, x1, y1, x2, y2);
+    }
+
+    private void drawPatch(Canvas canvas, Bitmap bitmap, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                           float dstLeft, float dstTop, float dstRight, float dstBottom) {
+        if (dstRight <= dstLeft || dstBottom <= dstTop) return;
+        src.set(srcLeft, srcTop, srcRight, srcBottom);
+        dst.set(dstLeft, dstTop, dstRight, dstBottom);
+        canvas.drawBitmap(bitmap, src, dst, paint);
+    }
+}
@@ -4,19 +4,13 @@ import android.graphics.Canvas;
 import android.graphics.ColorFilter;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
 
 /**
- * <code>
- * if (Build.VERSION.SDK_INT > Build.VERSION_CODES.HONEYCOMB) {
- * view.setLayerType(View.LAYER_TYPE_SOFTWARE, drawable.getPaint());
- * }
- * </code>
+ * 阴影取自共享的{@link ShadowAtlas}，无需再为控件设置软件绘制层
  * <p/>
  * Author: wangjie
  * Email: tiantian.china.2@gmail.com
@@ -24,6 +18,7 @@ import android.support.annotation.NonNull;
  */
 public class ShadowViewDrawable extends Drawable {
     private Paint paint;
+    private ShadowPatch shadowPatch;
 
     private RectF bounds = new RectF();
 
@@ -44,6 +39,7 @@ public class ShadowViewDrawable extends Drawable {
 
         this.rx = rx;
         this.ry = ry;
+        shadowPatch = new ShadowPatch(shadowProperty.getShadowRadius(), rx, ry);
 
         paint = new Paint();
         paint.setAntiAlias(true);
@@ -54,10 +50,6 @@ public class ShadowViewDrawable extends Drawable {
         paint.setDither(true);
         paint.setStyle(Paint.Style.FILL);
         paint.setColor(color);
-        /**
-         * 设置阴影
-         */
-        paint.setShadowLayer(shadowProperty.getShadowRadius(), shadowProperty.getShadowDx(), shadowProperty.getShadowDy(), shadowProperty.getShadowColor());
 
         drawRect = new RectF();
     }
@@ -90,20 +82,16 @@ public class ShadowViewDrawable extends Drawable {
         }
     }
 
-    private PorterDuffXfermode srcOut = new PorterDuffXfermode(PorterDuff.Mode.SRC_OUT);
-
     @Override
     public void draw(@NonNull Canvas canvas) {
-//        paint.setXfermode(null);
-
-        canvas.drawRoundRect(
-                drawRect,
-                rx, ry,
-                paint
-        );
-
-//        paint.setXfermode(srcOut);
-//        paint.setColor(Color.TRANSPARENT);
+        if (drawRect.width() <= 0 || drawRect.height() <= 0) return;
+        /**
+         * 先绘制预先模糊好的阴影，再绘制一次填充
+         */
+        if (shadowProperty.getShadowRadius() > 0) {
+            shadowPatch.draw(canvas, ShadowAtlas.obtain(shadowProperty, rx, ry), drawRect,
+                    shadowProperty.getShadowDx(), shadowProperty.getShadowDy());
+        }
         canvas.drawRoundRect(drawRect, rx, ry, paint);
     }
 
@@ -0,0 +1,47 @@
+package com.andova.oiv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 动画元素在准备动画时的重置、赋值与按通道读取
+ */
+@State(Scope.Thread)
+public class OivAnimatorElementBenchmark {
+    private OivAnimatorElement mElement;
+    private int mColor;
+
+    @Setup
+    public void setUp() {
+        mElement = new OivAnimatorElement();
+    }
+
+    @Benchmark
+    public OivAnimatorElement resetAndFill() {
+        OivAnimatorElement element = mElement;
+        element.reset();
+        element.setBodyTextColor(++mColor);
+        element.setBriefTextColor(mColor);
+        element.setBodyBaseLineY(mColor);
+        element.setBriefBaseLineY(mColor);
+        return element;
+    }
+
+    @Benchmark
+    public int readChannels() {
+        OivAnimatorElement element = mElement;
+        int sum = 0;
+        if (element.isSetBodyTextColor()) sum += element.bodyTextColor;
+        if (element.isSetBriefTextColor()) sum += element.briefTextColor;
+        if (element.isSetBodyBaseLineY()) sum += (int) element.bodyBaseLineY;
+        if (element.isSetBriefBaseLineY()) sum += (int) element.briefBaseLineY;
+        return sum;
+    }
+
+    @Benchmark
+    public OivAnimatorElement allocate() {
+        return new OivAnimatorElement();
+    }
+}
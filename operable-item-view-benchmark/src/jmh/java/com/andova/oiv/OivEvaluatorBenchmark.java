@@ -0,0 +1,59 @@
+package com.andova.oiv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 逐帧插值的开销，复用目标对象时gc.alloc.rate.norm应为0
+ */
+@State(Scope.Thread)
+public class OivEvaluatorBenchmark {
+    private OivEvaluator mEvaluator;
+    private OivAnimatorElement mStart;
+    private OivAnimatorElement mEnd;
+    private OivAnimatorElement mTarget;
+    private float mFraction;
+
+    @Setup
+    public void setUp() {
+        mEvaluator = new OivEvaluator();
+        mStart = element(0xff000000, 0xff333333, 20f, 60f);
+        mEnd = element(0x00000000, 0x00333333, 40f, 80f);
+        mTarget = new OivAnimatorElement();
+    }
+
+    private static OivAnimatorElement element(int bodyColor, int briefColor, float bodyY, float briefY) {
+        OivAnimatorElement element = new OivAnimatorElement();
+        element.setBodyTextColor(bodyColor);
+        element.setBriefTextColor(briefColor);
+        element.setBodyBaseLineY(bodyY);
+        element.setBriefBaseLineY(briefY);
+        return element;
+    }
+
+    /**
+     * 每次调用推进插值进度，避免常量折叠
+     */
+    private float nextFraction() {
+        mFraction += 0.01f;
+        if (mFraction > 1f) mFraction = 0f;
+        return mFraction;
+    }
+
+    @Benchmark
+    public OivAnimatorElement evaluateReusing() {
+        return mEvaluator.evaluate(nextFraction(), mStart, mEnd, mTarget);
+    }
+
+    @Benchmark
+    public OivAnimatorElement evaluateAllocating() {
+        return mEvaluator.evaluate(nextFraction(), mStart, mEnd);
+    }
+
+    @Benchmark
+    public int argb() {
+        return mEvaluator.argb(nextFraction(), 0xff102030, 0x00405060);
+    }
+}
@@ -0,0 +1,77 @@
+package com.andova.oiv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
+
+/**
+ * 重力、图标对齐与可用宽度等几何运算
+ */
+@State(Scope.Thread)
+public class OivLayoutEngineBenchmark {
+    @Param({"leftTop", "centerPacked", "briefStartAligned"})
+    public String scenario;
+    private OivLayoutSpec mSpec;
+
+    @Setup
+    public void setUp() {
+        OivLayoutSpec.Builder builder = new OivLayoutSpec.Builder()
+                .size(1080, 160)
+                .padding(32, 16, 32, 16)
+                .drawablePadding(16)
+                .textInterval(8)
+                .divider(true)
+                .startDrawable(true, 64, 64)
+                .endDrawable(true, 48, 48)
+                .briefText(false, true, 40f)
+                .bodyText(false, true, 48f)
+                .textLayout(400, 40, 600, 48);
+        switch (scenario) {
+            case "centerPacked":
+                builder.gravity(OIV_GRAVITY_FLAG_CENTER)
+                        .drawableChainStyle(OIV_DRAWABLE_CHAIN_STYLE_PACKED)
+                        .drawableAlignStyle(OIV_DRAWABLE_ALIGN_STYLE_NORMAL);
+                break;
+            case "briefStartAligned":
+                builder.gravity(OIV_GRAVITY_FLAG_LEFT | OIV_GRAVITY_FLAG_TOP)
+                        .drawableChainStyle(OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE)
+                        .drawableAlignStyle(OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START);
+                break;
+            case "leftTop":
+            default:
+                builder.gravity(OIV_GRAVITY_FLAG_LEFT | OIV_GRAVITY_FLAG_TOP);
+                break;
+        }
+        mSpec = builder.build();
+    }
+
+    @Benchmark
+    public OivLayoutResult layout() {
+        return OivLayoutEngine.layout(mSpec);
+    }
+
+    @Benchmark
+    public float contentHeight() {
+        return OivLayoutEngine.contentHeight(mSpec);
+    }
+
+    @Benchmark
+    public int usableMaxTextWidth() {
+        return OivLayoutEngine.usableMaxTextWidth(mSpec);
+    }
+
+    @Benchmark
+    public int horizontalGravity() {
+        return OivLayoutEngine.horizontalGravity(mSpec.gravity);
+    }
+}
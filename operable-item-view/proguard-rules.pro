@@ -25,11 +25,60 @@
 #-renamesourcefileattribute SourceFile
 -keepclasseswithmembers class com.andova.oiv.OperableItemView{
     <init>(android.content.Context, android.util.AttributeSet);
+    <init>(android.content.Context);
+    public static com.andova.oiv.OperableItemView create(android.content.Context, com.andova.oiv.OivStyle);
     public boolean isEndDrawableVisible();
     public boolean isStartDrawableVisible();
     public void enableBodyText(boolean, float);
     public void enableBriefText(boolean, float);
     public void enableBodyText(boolean, boolean);
     public void enableBriefText(boolean, boolean);
+    public void postBodyTextPercent(boolean, float);
+    public void postBriefTextPercent(boolean, float);
+    public int getDroppedPercentUpdateCount();
+    public int getMeasureCacheHitCount();
+    public void setBodyMaxLines(int);
+    public void setBriefMaxLines(int);
+    public void setEllipsize(int);
+    public com.andova.oiv.OperableItemView$Editor edit();
+    public int getSuppressedUpdateCount();
+    public int getAppliedUpdateCount();
+    public com.andova.oiv.OivPrecomputedText$Params getPrecomputedTextParams();
+    public void setPrecomputedText(com.andova.oiv.OivPrecomputedText);
+    public int getPrecomputedTextHitCount();
+    public void setOnMetricsListener(com.andova.oiv.OivMetrics$Listener);
+}
+-keep interface com.andova.oiv.OperableItemView$OnClickDrawableListener{*;}
+-keep class com.andova.oiv.OivLayoutPool{
+    public static <methods>;
+}
+-keep class com.andova.oiv.OperableItemView$Editor{
+    public *;
+}
+-keep class com.andova.oiv.OivPrecomputedText{
+    public *;
+}
+-keep class com.andova.oiv.OivPrecomputedText$Params
+-keep class com.andova.oiv.OivTypefaceCache{
+    public static <methods>;
+}
+-keep class com.andova.oiv.OivStyle{
+    public static <methods>;
+}
+-keep class com.andova.oiv.OivStyle$Builder{
+    public *;
+}
+-keep class com.andova.oiv.OivMetrics{
+    public *;
+}
+-keep interface com.andova.oiv.OivMetrics$Listener{*;}
+-keep class com.andova.oiv.OivMetrics$Histogram{
+    public *;
+}
+-keep class com.andova.oiv.OperableItemGroupView{
+    public *;
+}
+-keep interface com.andova.oiv.OperableItemGroupView$OnClickItemListener{*;}
+-keep class com.andova.oiv.OperableItemGroupView$Item{
+    public *;
 }
--keep interface com.andova.oiv.OperableItemView$OnClickDrawableListener{*;}
\ No newline at end of file
@@ -6,40 +6,71 @@ package com.andova.oiv;
  * @author Zsago
  */
 class OivAnimatorElement {
-    int argbValue = -1;
-    int bodyTextColor = -1;
-    int briefTextColor = -1;
-    float bodyBaseLineY = -1f;
-    float briefBaseLineY = -1f;
+    static final int FLAG_ARGB_VALUE = 0x01;
+    static final int FLAG_BODY_TEXT_COLOR = 0x02;
+    static final int FLAG_BRIEF_TEXT_COLOR = 0x04;
+    static final int FLAG_BODY_BASE_LINE_Y = 0x08;
+    static final int FLAG_BRIEF_BASE_LINE_Y = 0x10;
+
+    /**
+     * 已设置的通道，不再用-1表示未设置（{@link android.graphics.Color#WHITE}即为-1）
+     */
+    int mask;
+    int argbValue;
+    int bodyTextColor;
+    int briefTextColor;
+    float bodyBaseLineY;
+    float briefBaseLineY;
+
+    void setArgbValue(int argbValue) {
+        this.argbValue = argbValue;
+        mask |= FLAG_ARGB_VALUE;
+    }
+
+    void setBodyTextColor(int bodyTextColor) {
+        this.bodyTextColor = bodyTextColor;
+        mask |= FLAG_BODY_TEXT_COLOR;
+    }
+
+    void setBriefTextColor(int briefTextColor) {
+        this.briefTextColor = briefTextColor;
+        mask |= FLAG_BRIEF_TEXT_COLOR;
+    }
+
+    void setBodyBaseLineY(float bodyBaseLineY) {
+        this.bodyBaseLineY = bodyBaseLineY;
+        mask |= FLAG_BODY_BASE_LINE_Y;
+    }
+
+    void setBriefBaseLineY(float briefBaseLineY) {
+        this.briefBaseLineY = briefBaseLineY;
+        mask |= FLAG_BRIEF_BASE_LINE_Y;
+    }
 
     /**
      * 是否设置了颜色值
      */
     boolean isSetArgbValue() {
-        return argbValue != -1;
+        return (mask & FLAG_ARGB_VALUE) != 0;
     }
 
     boolean isSetBodyTextColor() {
-        return bodyTextColor != -1;
+        return (mask & FLAG_BODY_TEXT_COLOR) != 0;
     }
 
     boolean isSetBriefTextColor() {
-        return briefTextColor != -1;
+        return (mask & FLAG_BRIEF_TEXT_COLOR) != 0;
     }
 
     boolean isSetBodyBaseLineY() {
-        return bodyBaseLineY != -1f;
+        return (mask & FLAG_BODY_BASE_LINE_Y) != 0;
     }
 
     boolean isSetBriefBaseLineY() {
-        return briefBaseLineY != -1f;
+        return (mask & FLAG_BRIEF_BASE_LINE_Y) != 0;
     }
 
     void reset() {
-        argbValue = -1;
-        bodyTextColor = -1;
-        briefTextColor = -1;
-        bodyBaseLineY = -1f;
-        briefBaseLineY = -1f;
+        mask = 0;
     }
 }
@@ -8,7 +8,7 @@ import android.animation.TypeEvaluator;
  * @author Zsago
  */
 class OivEvaluator implements TypeEvaluator<OivAnimatorElement> {
-    private int argb(float fraction, int startValue, int endValue) {
+    int argb(float fraction, int startValue, int endValue) {
         int startA = (startValue >> 24) & 0xff;
         int startR = (startValue >> 16) & 0xff;
         int startG = (startValue >> 8) & 0xff;
@@ -31,20 +31,32 @@ class OivEvaluator implements TypeEvaluator<OivAnimatorElement> {
 
     @Override
     public OivAnimatorElement evaluate(float fraction, OivAnimatorElement startElement, OivAnimatorElement endElement) {
-        OivAnimatorElement element = new OivAnimatorElement();
-        if (startElement.isSetArgbValue() && endElement.isSetArgbValue()) {
+        return evaluate(fraction, startElement, endElement, new OivAnimatorElement());
+    }
+
+    /**
+     * 将插值结果写入复用的{@code element}，逐帧调用时不产生新对象
+     *
+     * @return {@code element}
+     */
+    OivAnimatorElement evaluate(float fraction, OivAnimatorElement startElement, OivAnimatorElement endElement,
+                                OivAnimatorElement element) {
+        int mask = startElement.mask & endElement.mask;
+        element.mask = mask;
+        if (mask == 0) return element;
+        if ((mask & OivAnimatorElement.FLAG_ARGB_VALUE) != 0) {
             element.argbValue = argb(fraction, startElement.argbValue, endElement.argbValue);
         }
-        if (startElement.isSetBodyBaseLineY() && endElement.isSetBodyBaseLineY()) {
+        if ((mask & OivAnimatorElement.FLAG_BODY_BASE_LINE_Y) != 0) {
             element.bodyBaseLineY = number(fraction, startElement.bodyBaseLineY, endElement.bodyBaseLineY);
         }
-        if (startElement.isSetBriefBaseLineY() && endElement.isSetBriefBaseLineY()) {
+        if ((mask & OivAnimatorElement.FLAG_BRIEF_BASE_LINE_Y) != 0) {
             element.briefBaseLineY = number(fraction, startElement.briefBaseLineY, endElement.briefBaseLineY);
         }
-        if (startElement.isSetBodyTextColor() && endElement.isSetBodyTextColor()) {
+        if ((mask & OivAnimatorElement.FLAG_BODY_TEXT_COLOR) != 0) {
             element.bodyTextColor = argb(fraction, startElement.bodyTextColor, endElement.bodyTextColor);
         }
-        if (startElement.isSetBriefTextColor() && endElement.isSetBriefTextColor()) {
+        if ((mask & OivAnimatorElement.FLAG_BRIEF_TEXT_COLOR) != 0) {
             element.briefTextColor = argb(fraction, startElement.briefTextColor, endElement.briefTextColor);
         }
         return element;
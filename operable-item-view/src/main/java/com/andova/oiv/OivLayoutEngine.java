@@ -0,0 +1,422 @@
+package com.andova.oiv;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BODY_END;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BODY_START;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_BOTTOM;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_VERTICAL;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_RIGHT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
+
+/**
+ * {@link OperableItemView}的几何计算，输入{@link OivLayoutSpec}输出{@link OivLayoutResult}，
+ * 不依赖{@link android.view.View}与{@link android.graphics.Canvas}，可在任意线程或普通JVM上运行
+ */
+final class OivLayoutEngine {
+    private OivLayoutEngine() {
+    }
+
+    static OivLayoutResult layout(OivLayoutSpec spec) {
+        int briefTextY = briefBaseLineY(spec);
+        int bodyTextY = bodyBaseLineY(spec);
+        int centerY = spec.height / 2;
+
+        boolean startShown = spec.isStartDrawableShown();
+        switch (startDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                if (spec.briefTextEmpty) startShown = false;
+                break;
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                if (spec.bodyTextEmpty) startShown = false;
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                break;
+        }
+        int startLeft = 0, startTop = 0, startRight = 0, startBottom = 0;
+        if (startShown) {
+            startLeft = startDrawableLeft(spec);
+            startTop = startDrawableTop(spec, centerY);
+            startRight = startLeft + startDrawableWidth(spec);
+            startBottom = startTop + startDrawableHeight(spec);
+        }
+
+        boolean endShown = spec.isEndDrawableShown();
+        switch (endDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                if (spec.briefTextEmpty) endShown = false;
+                break;
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                if (spec.bodyTextEmpty) endShown = false;
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                break;
+        }
+        int endLeft = 0, endTop = 0, endRight = 0, endBottom = 0;
+        if (endShown) {
+            endRight = endDrawableRight(spec);
+            endLeft = endRight - endDrawableWidth(spec);
+            endTop = endDrawableTop(spec, centerY);
+            endBottom = endTop + endDrawableHeight(spec);
+        }
+
+        int dividerLeft = 0, dividerTop = 0, dividerRight = 0, dividerBottom = 0;
+        if (spec.hasDivider) {
+            dividerLeft = spec.hasStartDrawable
+                    ? spec.paddingLeft + spec.drawablePadding + startDrawableWidth(spec) : spec.paddingLeft;
+            dividerTop = (int) (spec.height - spec.dividerHeight);
+            dividerRight = spec.width - spec.paddingRight;
+            dividerBottom = spec.height;
+        }
+
+        return new OivLayoutResult(briefTextX(spec), briefTextY, bodyTextX(spec), bodyTextY,
+                startShown, startLeft, startTop, startRight, startBottom,
+                endShown, endLeft, endTop, endRight, endBottom,
+                spec.hasDivider, dividerLeft, dividerTop, dividerRight, dividerBottom);
+    }
+
+    /**
+     * 自适应高度时内容所需的高度，不含上下内边距
+     */
+    static float contentHeight(OivLayoutSpec spec) {
+        float height = 0;
+        if (spec.hasStartDrawable && startDrawableHeight(spec) > height) {
+            height = startDrawableHeight(spec);
+        }
+        if (spec.hasEndDrawable && endDrawableHeight(spec) > height) {
+            height = endDrawableHeight(spec);
+        }
+        float lineHeight = (spec.briefTextEmpty ? 0 : spec.briefLineHeight)
+                + spec.textInterval + (spec.bodyTextEmpty ? 0 : spec.bodyLineHeight);
+        if (lineHeight > height) {
+            height = lineHeight;
+        }
+        float linesHeight = (!spec.hasTextLayout || spec.briefTextEmpty ? 0 : spec.briefLayoutHeight)
+                + (!spec.hasTextLayout || spec.bodyTextEmpty ? 0 : spec.bodyLayoutHeight) + spec.textInterval;
+        if (linesHeight > height) {
+            height = linesHeight;
+        }
+        return height;
+    }
+
+    /**
+     * 文本可用的最大宽度
+     */
+    static int usableMaxTextWidth(OivLayoutSpec spec) {
+        if (spec.width <= 0) return 0;
+        return spec.width - occupiedWidthExceptText(spec);
+    }
+
+    static int horizontalGravity(int gravity) {
+        if ((gravity & OIV_GRAVITY_FLAG_CENTER_HORIZONTAL) != 0) {
+            return OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
+        }
+        if ((gravity & OIV_GRAVITY_FLAG_RIGHT) != 0) {
+            return OIV_GRAVITY_FLAG_RIGHT;
+        }
+        return OIV_GRAVITY_FLAG_LEFT;
+    }
+
+    static int verticalGravity(int gravity) {
+        if ((gravity & OIV_GRAVITY_FLAG_CENTER_VERTICAL) != 0) {
+            return OIV_GRAVITY_FLAG_CENTER_VERTICAL;
+        }
+        if ((gravity & OIV_GRAVITY_FLAG_BOTTOM) != 0) {
+            return OIV_GRAVITY_FLAG_BOTTOM;
+        }
+        return OIV_GRAVITY_FLAG_TOP;
+    }
+
+    private static int startDrawableAlignStyle(OivLayoutSpec spec) {
+        if ((spec.drawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START) != 0) {
+            return OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+        }
+        if ((spec.drawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BODY_START) != 0) {
+            return OIV_DRAWABLE_ALIGN_STYLE_BODY_START;
+        }
+        return OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+    }
+
+    private static int endDrawableAlignStyle(OivLayoutSpec spec) {
+        if ((spec.drawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END) != 0) {
+            return OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END;
+        }
+        if ((spec.drawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BODY_END) != 0) {
+            return OIV_DRAWABLE_ALIGN_STYLE_BODY_END;
+        }
+        return OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+    }
+
+    private static int briefTextX(OivLayoutSpec spec) {
+        int paddingLeft = spec.paddingLeft;
+        switch (horizontalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
+                return spec.width / 2;
+            case OIV_GRAVITY_FLAG_RIGHT:
+                return usableBriefSpaceWidth(spec) + spec.briefLayoutWidth +
+                        (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BODY_START
+                                ? paddingLeft : paddingLeft + spec.drawablePadding + startDrawableWidth(spec));
+            case OIV_GRAVITY_FLAG_LEFT:
+            default:
+                return !spec.isStartDrawableShown()
+                        || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? paddingLeft
+                        : paddingLeft + spec.drawablePadding + startDrawableWidth(spec);
+        }
+    }
+
+    private static int bodyTextX(OivLayoutSpec spec) {
+        int paddingLeft = spec.paddingLeft;
+        switch (horizontalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
+                return spec.width / 2;
+            case OIV_GRAVITY_FLAG_RIGHT:
+                return usableBodySpaceWidth(spec) + spec.bodyLayoutWidth +
+                        (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START
+                                ? paddingLeft : paddingLeft + spec.drawablePadding + startDrawableWidth(spec));
+            case OIV_GRAVITY_FLAG_LEFT:
+            default:
+                return !spec.isStartDrawableShown()
+                        || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? paddingLeft
+                        : paddingLeft + spec.drawablePadding + startDrawableWidth(spec);
+        }
+    }
+
+    static int startDrawableWidth(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return spec.startDrawableIntrinsicWidth;
+        switch (startDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                return (int) ((float) spec.startDrawableIntrinsicHeight / (float) spec.startDrawableIntrinsicWidth * spec.briefLayoutHeight);
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                return (int) ((float) spec.startDrawableIntrinsicHeight / (float) spec.startDrawableIntrinsicWidth * spec.bodyLayoutHeight);
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return spec.startDrawableIntrinsicWidth;
+        }
+    }
+
+    static int startDrawableHeight(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return spec.startDrawableIntrinsicHeight;
+        switch (startDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                return spec.briefLayoutHeight;
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                return spec.bodyLayoutHeight;
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return spec.startDrawableIntrinsicHeight;
+        }
+    }
+
+    private static int startDrawableLeft(OivLayoutSpec spec) {
+        int paddingLeft = spec.paddingLeft;
+        switch (spec.drawableChainStyle) {
+            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
+                break;
+            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
+            default:
+                return paddingLeft;
+        }
+        switch (horizontalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
+                switch (startDrawableAlignStyle(spec)) {
+                    case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                        return spec.width / 2 - spec.briefLayoutWidth / 2 - spec.drawablePadding - startDrawableWidth(spec);
+                    case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                        return spec.width / 2 - spec.bodyLayoutWidth / 2 - spec.drawablePadding - startDrawableWidth(spec);
+                    case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+                    default:
+                        break;
+                }
+                return spec.width / 2 - Math.max(spec.briefLayoutWidth, spec.bodyLayoutWidth) / 2
+                        - spec.drawablePadding - startDrawableWidth(spec);
+            case OIV_GRAVITY_FLAG_RIGHT:
+                return paddingLeft + usableSpaceWidth(spec, startDrawableAlignStyle(spec));
+            case OIV_GRAVITY_FLAG_LEFT:
+            default:
+                return paddingLeft;
+        }
+    }
+
+    private static int startDrawableTop(OivLayoutSpec spec, int centerY) {
+        switch (startDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                return briefBaseLineY(spec);
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                return bodyBaseLineY(spec);
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return centerY - startDrawableHeight(spec) / 2;
+        }
+    }
+
+    static int endDrawableWidth(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return spec.endDrawableIntrinsicWidth;
+        switch (endDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                return (int) ((float) spec.endDrawableIntrinsicHeight / (float) spec.endDrawableIntrinsicWidth * spec.briefLayoutHeight);
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                return (int) ((float) spec.endDrawableIntrinsicHeight / (float) spec.endDrawableIntrinsicWidth * spec.bodyLayoutHeight);
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return spec.endDrawableIntrinsicWidth;
+        }
+    }
+
+    static int endDrawableHeight(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return spec.endDrawableIntrinsicHeight;
+        switch (endDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                return spec.briefLayoutHeight;
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                return spec.bodyLayoutHeight;
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return spec.endDrawableIntrinsicHeight;
+        }
+    }
+
+    private static int endDrawableTop(OivLayoutSpec spec, int centerY) {
+        switch (endDrawableAlignStyle(spec)) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                return briefBaseLineY(spec);
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                return bodyBaseLineY(spec);
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+                return centerY - endDrawableHeight(spec) / 2;
+        }
+    }
+
+    private static int endDrawableRight(OivLayoutSpec spec) {
+        int paddingRight = spec.paddingRight;
+        switch (spec.drawableChainStyle) {
+            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
+                break;
+            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
+            default:
+                return spec.width - paddingRight;
+        }
+        switch (horizontalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
+                switch (endDrawableAlignStyle(spec)) {
+                    case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                        return spec.width / 2 + spec.briefLayoutWidth / 2 + spec.drawablePadding + endDrawableWidth(spec);
+                    case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                        return spec.width / 2 + spec.bodyLayoutWidth / 2 + spec.drawablePadding + endDrawableWidth(spec);
+                    case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+                    default:
+                        break;
+                }
+                return spec.width / 2 + Math.max(spec.briefLayoutWidth, spec.bodyLayoutWidth) / 2
+                        + spec.drawablePadding + endDrawableWidth(spec);
+            case OIV_GRAVITY_FLAG_LEFT:
+                return spec.width - paddingRight - usableSpaceWidth(spec, endDrawableAlignStyle(spec));
+            case OIV_GRAVITY_FLAG_RIGHT:
+            default:
+                return spec.width - paddingRight;
+        }
+    }
+
+    private static int usableBriefSpaceWidth(OivLayoutSpec spec) {
+        return spec.width - occupiedWidthExceptText(spec) - spec.briefLayoutWidth
+                + (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) != OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                + (!spec.isEndDrawableShown() || endDrawableAlignStyle(spec) != OIV_DRAWABLE_ALIGN_STYLE_BODY_END ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+    }
+
+    private static int usableBodySpaceWidth(OivLayoutSpec spec) {
+        return spec.width - occupiedWidthExceptText(spec) - spec.bodyLayoutWidth
+                + (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) != OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                + (!spec.isEndDrawableShown() || endDrawableAlignStyle(spec) != OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+    }
+
+    private static int usableSpaceWidth(OivLayoutSpec spec, int alignStyle) {
+        switch (alignStyle) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                return spec.width - occupiedWidthExceptText(spec, alignStyle) - spec.briefLayoutWidth;
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                return spec.width - occupiedWidthExceptText(spec, alignStyle) - spec.bodyLayoutWidth;
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+        }
+        return spec.width - occupiedWidthExceptText(spec)
+                - Math.max(spec.briefLayoutWidth, spec.bodyLayoutWidth);
+    }
+
+    static int occupiedWidthExceptText(OivLayoutSpec spec) {
+        return spec.paddingLeft + spec.paddingRight
+                + (!spec.isStartDrawableShown() ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                + (!spec.isEndDrawableShown() ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+    }
+
+    private static int occupiedWidthExceptText(OivLayoutSpec spec, int alignStyle) {
+        switch (alignStyle) {
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
+                return spec.paddingLeft + spec.paddingRight
+                        + (!spec.isStartDrawableShown() ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                        + (!spec.isEndDrawableShown() || endDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BODY_END ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
+                return spec.paddingLeft + spec.paddingRight
+                        + (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                        + (!spec.isEndDrawableShown() ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
+                return spec.paddingLeft + spec.paddingRight
+                        + (!spec.isStartDrawableShown() ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                        + (!spec.isEndDrawableShown() || endDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
+                return spec.paddingLeft + spec.paddingRight
+                        + (!spec.isStartDrawableShown() || startDrawableAlignStyle(spec) == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? 0 : spec.drawablePadding + startDrawableWidth(spec))
+                        + (!spec.isEndDrawableShown() ? 0 : spec.drawablePadding + endDrawableWidth(spec));
+            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
+            default:
+        }
+        return occupiedWidthExceptText(spec);
+    }
+
+    static int briefBaseLineY(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return 0;
+        switch (verticalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_TOP:
+                return spec.paddingTop;
+            case OIV_GRAVITY_FLAG_BOTTOM:
+                return spec.height - spec.paddingBottom
+                        - spec.bodyLayoutHeight
+                        - spec.textInterval
+                        - spec.briefLayoutHeight;
+            case OIV_GRAVITY_FLAG_CENTER_VERTICAL:
+            default:
+                if (spec.bodyTextEmpty || !spec.bodyTextEnable) {
+                    return spec.height / 2 - spec.briefLayoutHeight / 2;
+                }
+                return (spec.height - spec.textInterval
+                        - spec.briefLayoutHeight
+                        - spec.bodyLayoutHeight) / 2;
+        }
+    }
+
+    static int bodyBaseLineY(OivLayoutSpec spec) {
+        if (!spec.hasTextLayout) return 0;
+        switch (verticalGravity(spec.gravity)) {
+            case OIV_GRAVITY_FLAG_TOP:
+                return spec.paddingTop + spec.briefLayoutHeight + spec.textInterval;
+            case OIV_GRAVITY_FLAG_BOTTOM:
+                return spec.height - spec.paddingBottom - spec.bodyLayoutHeight;
+            case OIV_GRAVITY_FLAG_CENTER_VERTICAL:
+            default:
+                if (spec.briefTextEmpty || !spec.briefTextEnable) {
+                    return spec.height / 2 - spec.bodyLayoutHeight / 2;
+                }
+                return spec.height
+                        - (spec.height - spec.textInterval
+                        - spec.briefLayoutHeight
+                        - spec.bodyLayoutHeight) / 2
+                        - spec.bodyLayoutHeight;
+        }
+    }
+}
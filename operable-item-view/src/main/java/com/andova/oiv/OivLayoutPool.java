@@ -0,0 +1,162 @@
+package com.andova.oiv;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * 进程内共享的{@link StaticLayout}与单行{@link BoringLayout}池，默认关闭
+ * <p>
+ * 文本、字体、字号等与颜色无关的画笔状态、宽度与对齐方式都相同的条目共用同一个布局，
+ * 布局持有的画笔为池内副本，绘制前由使用方设置颜色
+ */
+public final class OivLayoutPool {
+    private static LruCache<Key, Layout> sPool;
+
+    private OivLayoutPool() {
+    }
+
+    /**
+     * @param maxSize 最多缓存的布局个数，不大于0时关闭共享池
+     */
+    public static synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            sPool = null;
+            return;
+        }
+        if (sPool == null) {
+            sPool = new LruCache<>(maxSize);
+        } else {
+            sPool.resize(maxSize);
+        }
+    }
+
+    public static synchronized boolean isEnabled() {
+        return sPool != null;
+    }
+
+    public static synchronized int size() {
+        return sPool == null ? 0 : sPool.size();
+    }
+
+    public static synchronized int maxSize() {
+        return sPool == null ? 0 : sPool.maxSize();
+    }
+
+    public static synchronized int hitCount() {
+        return sPool == null ? 0 : sPool.hitCount();
+    }
+
+    public static synchronized int missCount() {
+        return sPool == null ? 0 : sPool.missCount();
+    }
+
+    public static synchronized int evictionCount() {
+        return sPool == null ? 0 : sPool.evictionCount();
+    }
+
+    public static synchronized void clear() {
+        if (sPool != null) sPool.evictAll();
+    }
+
+    /**
+     * @return 共享池关闭时返回null，由调用方自行创建布局
+     */
+    static StaticLayout obtain(String text, TextPaint paint, int width, Layout.Alignment alignment) {
+        LruCache<Key, Layout> pool = pool();
+        if (pool == null) return null;
+        Key key = new Key(text, paint, width, alignment, false);
+        StaticLayout layout = (StaticLayout) pool.get(key);
+        if (layout != null) return layout;
+        layout = new StaticLayout(text, new TextPaint(paint), width, alignment, 1f, 0f, false);
+        pool.put(key, layout);
+        return layout;
+    }
+
+    /**
+     * 与{@link #obtain(String, TextPaint, int, Layout.Alignment)}分开计键，同一文本与宽度不会混用两种布局
+     *
+     * @param metrics 由{@link BoringLayout#isBoring(CharSequence, TextPaint)}得到，只取决于参与计键的画笔状态
+     * @return 共享池关闭时返回null，由调用方自行创建布局
+     */
+    static BoringLayout obtainBoring(String text, TextPaint paint, int width, Layout.Alignment alignment,
+                                     BoringLayout.Metrics metrics) {
+        LruCache<Key, Layout> pool = pool();
+        if (pool == null) return null;
+        Key key = new Key(text, paint, width, alignment, true);
+        BoringLayout layout = (BoringLayout) pool.get(key);
+        if (layout != null) return layout;
+        layout = BoringLayout.make(text, new TextPaint(paint), width, alignment, 1f, 0f, metrics, false);
+        pool.put(key, layout);
+        return layout;
+    }
+
+    private static synchronized LruCache<Key, Layout> pool() {
+        return sPool;
+    }
+
+    private static final class Key {
+        private final String text;
+        private final Typeface typeface;
+        private final float textSize;
+        private final float textScaleX;
+        private final float textSkewX;
+        private final int flags;
+        private final Paint.Align textAlign;
+        private final int width;
+        private final Layout.Alignment alignment;
+        private final boolean boring;
+        private final int hashCode;
+
+        Key(String text, TextPaint paint, int width, Layout.Alignment alignment, boolean boring) {
+            this.text = text;
+            this.typeface = paint.getTypeface();
+            this.textSize = paint.getTextSize();
+            this.textScaleX = paint.getTextScaleX();
+            this.textSkewX = paint.getTextSkewX();
+            this.flags = paint.getFlags();
+            this.textAlign = paint.getTextAlign();
+            this.width = width;
+            this.alignment = alignment;
+            this.boring = boring;
+            int result = text.hashCode();
+            result = 31 * result + (typeface == null ? 0 : typeface.hashCode());
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + Float.floatToIntBits(textSkewX);
+            result = 31 * result + flags;
+            result = 31 * result + textAlign.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + alignment.hashCode();
+            result = 31 * result + (boring ? 1 : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && width == key.width
+                    && flags == key.flags
+                    && Float.compare(key.textSize, textSize) == 0
+                    && Float.compare(key.textScaleX, textScaleX) == 0
+                    && Float.compare(key.textSkewX, textSkewX) == 0
+                    && textAlign == key.textAlign
+                    && alignment == key.alignment
+                    && boring == key.boring
+                    && (typeface == null ? key.typeface == null : typeface.equals(key.typeface))
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
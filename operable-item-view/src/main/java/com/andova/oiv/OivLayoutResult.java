@@ -0,0 +1,56 @@
+package com.andova.oiv;
+
+/**
+ * {@link OivLayoutEngine}的输出：文本绘制起点与各图标、分割线的边界，创建后不可修改
+ */
+final class OivLayoutResult {
+    final int briefTextX;
+    final int briefTextY;
+    final int bodyTextX;
+    final int bodyTextY;
+
+    final boolean startDrawableShown;
+    final int startDrawableLeft;
+    final int startDrawableTop;
+    final int startDrawableRight;
+    final int startDrawableBottom;
+
+    final boolean endDrawableShown;
+    final int endDrawableLeft;
+    final int endDrawableTop;
+    final int endDrawableRight;
+    final int endDrawableBottom;
+
+    final boolean dividerShown;
+    final int dividerLeft;
+    final int dividerTop;
+    final int dividerRight;
+    final int dividerBottom;
+
+    OivLayoutResult(int briefTextX, int briefTextY, int bodyTextX, int bodyTextY,
+                    boolean startDrawableShown, int startDrawableLeft, int startDrawableTop,
+                    int startDrawableRight, int startDrawableBottom,
+                    boolean endDrawableShown, int endDrawableLeft, int endDrawableTop,
+                    int endDrawableRight, int endDrawableBottom,
+                    boolean dividerShown, int dividerLeft, int dividerTop, int dividerRight, int dividerBottom) {
+        this.briefTextX = briefTextX;
+        this.briefTextY = briefTextY;
+        this.bodyTextX = bodyTextX;
+        this.bodyTextY = bodyTextY;
+        this.startDrawableShown = startDrawableShown;
+        this.startDrawableLeft = startDrawableLeft;
+        this.startDrawableTop = startDrawableTop;
+        this.startDrawableRight = startDrawableRight;
+        this.startDrawableBottom = startDrawableBottom;
+        this.endDrawableShown = endDrawableShown;
+        this.endDrawableLeft = endDrawableLeft;
+        this.endDrawableTop = endDrawableTop;
+        this.endDrawableRight = endDrawableRight;
+        this.endDrawableBottom = endDrawableBottom;
+        this.dividerShown = dividerShown;
+        this.dividerLeft = dividerLeft;
+        this.dividerTop = dividerTop;
+        this.dividerRight = dividerRight;
+        this.dividerBottom = dividerBottom;
+    }
+}
@@ -0,0 +1,222 @@
+package com.andova.oiv;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+
+/**
+ * {@link OivLayoutEngine}的输入，不依赖任何Android类，创建后不可修改
+ */
+final class OivLayoutSpec {
+    final int width;
+    final int height;
+    final int paddingLeft;
+    final int paddingTop;
+    final int paddingRight;
+    final int paddingBottom;
+
+    final int gravity;
+    final int drawableChainStyle;
+    final int drawableAlignStyle;
+    final int drawablePadding;
+    final int textInterval;
+    final float dividerHeight;
+
+    final boolean hasStartDrawable;
+    final boolean startDrawableVisible;
+    final int startDrawableIntrinsicWidth;
+    final int startDrawableIntrinsicHeight;
+    final boolean hasEndDrawable;
+    final boolean endDrawableVisible;
+    final int endDrawableIntrinsicWidth;
+    final int endDrawableIntrinsicHeight;
+    final boolean hasDivider;
+
+    final boolean briefTextEmpty;
+    final boolean briefTextEnable;
+    final float briefLineHeight;
+    final boolean bodyTextEmpty;
+    final boolean bodyTextEnable;
+    final float bodyLineHeight;
+
+    /**
+     * 文本尚未断行时为false，此时图标尺寸取其固有尺寸
+     */
+    final boolean hasTextLayout;
+    final int briefLayoutWidth;
+    final int briefLayoutHeight;
+    final int bodyLayoutWidth;
+    final int bodyLayoutHeight;
+
+    private OivLayoutSpec(Builder builder) {
+        width = builder.width;
+        height = builder.height;
+        paddingLeft = builder.paddingLeft;
+        paddingTop = builder.paddingTop;
+        paddingRight = builder.paddingRight;
+        paddingBottom = builder.paddingBottom;
+        gravity = builder.gravity;
+        drawableChainStyle = builder.drawableChainStyle;
+        drawableAlignStyle = builder.drawableAlignStyle;
+        drawablePadding = builder.drawablePadding;
+        textInterval = builder.textInterval;
+        dividerHeight = builder.dividerHeight;
+        hasStartDrawable = builder.hasStartDrawable;
+        startDrawableVisible = builder.startDrawableVisible;
+        startDrawableIntrinsicWidth = builder.startDrawableIntrinsicWidth;
+        startDrawableIntrinsicHeight = builder.startDrawableIntrinsicHeight;
+        hasEndDrawable = builder.hasEndDrawable;
+        endDrawableVisible = builder.endDrawableVisible;
+        endDrawableIntrinsicWidth = builder.endDrawableIntrinsicWidth;
+        endDrawableIntrinsicHeight = builder.endDrawableIntrinsicHeight;
+        hasDivider = builder.hasDivider;
+        briefTextEmpty = builder.briefTextEmpty;
+        briefTextEnable = builder.briefTextEnable;
+        briefLineHeight = builder.briefLineHeight;
+        bodyTextEmpty = builder.bodyTextEmpty;
+        bodyTextEnable = builder.bodyTextEnable;
+        bodyLineHeight = builder.bodyLineHeight;
+        hasTextLayout = builder.hasTextLayout;
+        briefLayoutWidth = builder.briefLayoutWidth;
+        briefLayoutHeight = builder.briefLayoutHeight;
+        bodyLayoutWidth = builder.bodyLayoutWidth;
+        bodyLayoutHeight = builder.bodyLayoutHeight;
+    }
+
+    /**
+     * 起始图标存在且可见
+     */
+    boolean isStartDrawableShown() {
+        return hasStartDrawable && startDrawableVisible;
+    }
+
+    boolean isEndDrawableShown() {
+        return hasEndDrawable && endDrawableVisible;
+    }
+
+    static final class Builder {
+        private int width;
+        private int height;
+        private int paddingLeft;
+        private int paddingTop;
+        private int paddingRight;
+        private int paddingBottom;
+        private int gravity;
+        private int drawableChainStyle = OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+        private int drawableAlignStyle = OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+        private int drawablePadding;
+        private int textInterval;
+        private float dividerHeight = 1f;
+        private boolean hasStartDrawable;
+        private boolean startDrawableVisible;
+        private int startDrawableIntrinsicWidth;
+        private int startDrawableIntrinsicHeight;
+        private boolean hasEndDrawable;
+        private boolean endDrawableVisible;
+        private int endDrawableIntrinsicWidth;
+        private int endDrawableIntrinsicHeight;
+        private boolean hasDivider;
+        private boolean briefTextEmpty = true;
+        private boolean briefTextEnable = true;
+        private float briefLineHeight;
+        private boolean bodyTextEmpty = true;
+        private boolean bodyTextEnable = true;
+        private float bodyLineHeight;
+        private boolean hasTextLayout;
+        private int briefLayoutWidth;
+        private int briefLayoutHeight;
+        private int bodyLayoutWidth;
+        private int bodyLayoutHeight;
+
+        Builder size(int width, int height) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        Builder padding(int left, int top, int right, int bottom) {
+            this.paddingLeft = left;
+            this.paddingTop = top;
+            this.paddingRight = right;
+            this.paddingBottom = bottom;
+            return this;
+        }
+
+        Builder gravity(int gravity) {
+            this.gravity = gravity;
+            return this;
+        }
+
+        Builder drawableChainStyle(int drawableChainStyle) {
+            this.drawableChainStyle = drawableChainStyle;
+            return this;
+        }
+
+        Builder drawableAlignStyle(int drawableAlignStyle) {
+            this.drawableAlignStyle = drawableAlignStyle;
+            return this;
+        }
+
+        Builder drawablePadding(int drawablePadding) {
+            this.drawablePadding = drawablePadding;
+            return this;
+        }
+
+        Builder textInterval(int textInterval) {
+            this.textInterval = textInterval;
+            return this;
+        }
+
+        Builder dividerHeight(float dividerHeight) {
+            this.dividerHeight = dividerHeight;
+            return this;
+        }
+
+        Builder startDrawable(boolean visible, int intrinsicWidth, int intrinsicHeight) {
+            this.hasStartDrawable = true;
+            this.startDrawableVisible = visible;
+            this.startDrawableIntrinsicWidth = intrinsicWidth;
+            this.startDrawableIntrinsicHeight = intrinsicHeight;
+            return this;
+        }
+
+        Builder endDrawable(boolean visible, int intrinsicWidth, int intrinsicHeight) {
+            this.hasEndDrawable = true;
+            this.endDrawableVisible = visible;
+            this.endDrawableIntrinsicWidth = intrinsicWidth;
+            this.endDrawableIntrinsicHeight = intrinsicHeight;
+            return this;
+        }
+
+        Builder divider(boolean hasDivider) {
+            this.hasDivider = hasDivider;
+            return this;
+        }
+
+        Builder briefText(boolean empty, boolean enable, float lineHeight) {
+            this.briefTextEmpty = empty;
+            this.briefTextEnable = enable;
+            this.briefLineHeight = lineHeight;
+            return this;
+        }
+
+        Builder bodyText(boolean empty, boolean enable, float lineHeight) {
+            this.bodyTextEmpty = empty;
+            this.bodyTextEnable = enable;
+            this.bodyLineHeight = lineHeight;
+            return this;
+        }
+
+        Builder textLayout(int briefWidth, int briefHeight, int bodyWidth, int bodyHeight) {
+            this.hasTextLayout = true;
+            this.briefLayoutWidth = briefWidth;
+            this.briefLayoutHeight = briefHeight;
+            this.bodyLayoutWidth = bodyWidth;
+            this.bodyLayoutHeight = bodyHeight;
+            return this;
+        }
+
+        OivLayoutSpec build() {
+            return new OivLayoutSpec(this);
+        }
+    }
+}
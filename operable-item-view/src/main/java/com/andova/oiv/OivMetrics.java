@@ -0,0 +1,146 @@
+package com.andova.oiv;
+
+/**
+ * {@link OperableItemView}的可选性能统计：各阶段耗时与静态布局重建、动画启动次数。
+ * 既未{@link #setEnabled(boolean) 全局开启}也未给控件设置{@link Listener}时，
+ * 控件不会调用{@link System#nanoTime()}，也不会产生任何额外开销
+ * <pre>
+ * OivMetrics.setEnabled(true);
+ * ...
+ * OivMetrics.Histogram draw = OivMetrics.histogram(OivMetrics.PHASE_DRAW);
+ * Log.d(TAG, "draw p90=" + draw.getPercentile(0.9f) + "ns");
+ * </pre>
+ */
+public final class OivMetrics {
+    /**
+     * onMeasure，包含其中的断行耗时
+     */
+    public static final int PHASE_MEASURE = 0;
+    /**
+     * initStaticLayout中实际重建文本布局的部分
+     */
+    public static final int PHASE_STATIC_LAYOUT = 1;
+    public static final int PHASE_LAYOUT = 2;
+    public static final int PHASE_DRAW = 3;
+    private static final int PHASE_COUNT = 4;
+
+    public static final int EVENT_STATIC_LAYOUT_BUILD = 0;
+    public static final int EVENT_ANIMATOR_START = 1;
+    private static final int EVENT_COUNT = 2;
+
+    private static boolean sEnabled;
+    private static final Histogram[] sHistograms = new Histogram[PHASE_COUNT];
+    private static final int[] sEventCounts = new int[EVENT_COUNT];
+
+    static {
+        for (int i = 0; i < PHASE_COUNT; i++) sHistograms[i] = new Histogram();
+    }
+
+    private OivMetrics() {
+    }
+
+    /**
+     * 单个控件的统计回调，在主线程中调用
+     */
+    public interface Listener {
+        void onPhase(OperableItemView view, int phase, long nanos);
+
+        void onEvent(OperableItemView view, int event);
+    }
+
+    /**
+     * 开启后所有控件的统计都汇总到全局直方图中
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    public static Histogram histogram(int phase) {
+        return sHistograms[phase];
+    }
+
+    public static int eventCount(int event) {
+        synchronized (sEventCounts) {
+            return sEventCounts[event];
+        }
+    }
+
+    public static void reset() {
+        for (Histogram histogram : sHistograms) histogram.reset();
+        synchronized (sEventCounts) {
+            for (int i = 0; i < EVENT_COUNT; i++) sEventCounts[i] = 0;
+        }
+    }
+
+    static void recordPhase(OperableItemView view, Listener listener, int phase, long nanos) {
+        if (sEnabled) sHistograms[phase].record(nanos);
+        if (listener != null) listener.onPhase(view, phase, nanos);
+    }
+
+    static void recordEvent(OperableItemView view, Listener listener, int event) {
+        if (sEnabled) {
+            synchronized (sEventCounts) {
+                sEventCounts[event]++;
+            }
+        }
+        if (listener != null) listener.onEvent(view, event);
+    }
+
+    /**
+     * 以2的幂为桶边界的耗时直方图，第i个桶记录[2^(i-1), 2^i)纳秒的样本
+     */
+    public static final class Histogram {
+        private static final int BUCKET_COUNT = 40;
+        private final long[] mBuckets = new long[BUCKET_COUNT];
+        private long mCount;
+        private long mSum;
+        private long mMax;
+
+        synchronized void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            int bucket = 64 - Long.numberOfLeadingZeros(nanos);
+            mBuckets[bucket < BUCKET_COUNT ? bucket : BUCKET_COUNT - 1]++;
+            mCount++;
+            mSum += nanos;
+            if (nanos > mMax) mMax = nanos;
+        }
+
+        public synchronized long getCount() {
+            return mCount;
+        }
+
+        public synchronized long getMean() {
+            return mCount == 0 ? 0 : mSum / mCount;
+        }
+
+        public synchronized long getMax() {
+            return mMax;
+        }
+
+        /**
+         * @param percent (0,1]
+         * @return 该分位所在桶的上界，单位纳秒
+         */
+        public synchronized long getPercentile(float percent) {
+            if (mCount == 0) return 0;
+            long target = (long) Math.ceil(mCount * percent);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += mBuckets[i];
+                if (seen >= target) return Math.min(1L << i, mMax);
+            }
+            return mMax;
+        }
+
+        synchronized void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) mBuckets[i] = 0;
+            mCount = 0;
+            mSum = 0;
+            mMax = 0;
+        }
+    }
+}
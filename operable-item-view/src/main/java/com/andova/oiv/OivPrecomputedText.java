@@ -0,0 +1,155 @@
+package com.andova.oiv;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextPaint;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 在工作线程中预先完成断行的正文与简述文本，适配器绑定时通过
+ * {@link OperableItemView#setPrecomputedText(OivPrecomputedText)}交给控件，
+ * 尚未完成或与控件状态不符时控件会退回到同步断行
+ * <pre>
+ * OivPrecomputedText.Params params = templateView.getPrecomputedTextParams();
+ * OivPrecomputedText text = OivPrecomputedText.create(params, body, brief, widthPx, executor);
+ * ...
+ * itemView.setPrecomputedText(text);
+ * </pre>
+ */
+public final class OivPrecomputedText {
+    final Params params;
+    final String bodyText;
+    final String briefText;
+    final int widthPx;
+    private volatile Layout mBodyLayout;
+    private volatile Layout mBriefLayout;
+    private volatile boolean mReady;
+
+    private OivPrecomputedText(Params params, String bodyText, String briefText, int widthPx) {
+        this.params = params;
+        this.bodyText = bodyText;
+        this.briefText = briefText;
+        this.widthPx = widthPx;
+    }
+
+    /**
+     * @param params   由{@link OperableItemView#getPrecomputedTextParams()}取得的文本样式
+     * @param widthPx  控件的测量宽度
+     * @param executor 执行断行的线程池
+     */
+    public static OivPrecomputedText create(Params params, String bodyText, String briefText, int widthPx,
+                                            Executor executor) {
+        final OivPrecomputedText text = new OivPrecomputedText(params, bodyText, briefText, widthPx);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                text.compute();
+            }
+        });
+        return text;
+    }
+
+    /**
+     * 每份结果使用各自的画笔副本，绘制时写入颜色不会影响其它线程中的断行
+     */
+    private void compute() {
+        int maxTextWidth = params.maxTextWidth(widthPx);
+        TextPaint briefPaint = new TextPaint(params.briefPaint);
+        TextPaint bodyPaint = new TextPaint(params.bodyPaint);
+        boolean ellipsize = params.ellipsize == OperableItemView.Ellipsize.OIV_ELLIPSIZE_END;
+        mBriefLayout = OperableItemView.newTextLayout(briefText, briefPaint, params.drawableChainStyle, maxTextWidth,
+                params.briefMaxLines, ellipsize);
+        mBodyLayout = OperableItemView.newTextLayout(bodyText, bodyPaint, params.drawableChainStyle, maxTextWidth,
+                params.bodyMaxLines, ellipsize);
+        mReady = true;
+    }
+
+    public boolean isReady() {
+        return mReady;
+    }
+
+    Layout getBodyLayout() {
+        return mBodyLayout;
+    }
+
+    Layout getBriefLayout() {
+        return mBriefLayout;
+    }
+
+    /**
+     * 预计算所需的文本样式快照，画笔为副本，可在工作线程中使用
+     */
+    public static final class Params {
+        final TextPaint bodyPaint;
+        final TextPaint briefPaint;
+        final int drawableChainStyle;
+        /**
+         * 除文本以外占用的宽度，与宽度无关
+         */
+        final int occupiedWidthExceptText;
+        final int bodyMaxLines;
+        final int briefMaxLines;
+        final int ellipsize;
+        private final TextStyle mBodyStyle;
+        private final TextStyle mBriefStyle;
+
+        Params(TextPaint bodyPaint, TextPaint briefPaint, int drawableChainStyle, int occupiedWidthExceptText,
+               int bodyMaxLines, int briefMaxLines, int ellipsize) {
+            this.bodyPaint = new TextPaint(bodyPaint);
+            this.briefPaint = new TextPaint(briefPaint);
+            this.drawableChainStyle = drawableChainStyle;
+            this.occupiedWidthExceptText = occupiedWidthExceptText;
+            this.bodyMaxLines = bodyMaxLines;
+            this.briefMaxLines = briefMaxLines;
+            this.ellipsize = ellipsize;
+            mBodyStyle = new TextStyle(bodyPaint);
+            mBriefStyle = new TextStyle(briefPaint);
+        }
+
+        int maxTextWidth(int widthPx) {
+            return widthPx <= 0 ? 0 : widthPx - occupiedWidthExceptText;
+        }
+
+        boolean matches(TextPaint bodyPaint, TextPaint briefPaint, int drawableChainStyle,
+                        int bodyMaxLines, int briefMaxLines, int ellipsize) {
+            return this.drawableChainStyle == drawableChainStyle
+                    && this.bodyMaxLines == bodyMaxLines
+                    && this.briefMaxLines == briefMaxLines
+                    && this.ellipsize == ellipsize
+                    && mBodyStyle.matches(bodyPaint)
+                    && mBriefStyle.matches(briefPaint);
+        }
+    }
+
+    /**
+     * 断行结果只取决于与颜色无关的画笔状态，创建参数时记录下来供绑定时比对
+     */
+    private static final class TextStyle {
+        private final float textSize;
+        private final float textScaleX;
+        private final float textSkewX;
+        private final int flags;
+        private final Paint.Align textAlign;
+        private final Typeface typeface;
+
+        TextStyle(TextPaint paint) {
+            textSize = paint.getTextSize();
+            textScaleX = paint.getTextScaleX();
+            textSkewX = paint.getTextSkewX();
+            flags = paint.getFlags();
+            textAlign = paint.getTextAlign();
+            typeface = paint.getTypeface();
+        }
+
+        boolean matches(TextPaint paint) {
+            return textSize == paint.getTextSize()
+                    && textScaleX == paint.getTextScaleX()
+                    && textSkewX == paint.getTextSkewX()
+                    && flags == paint.getFlags()
+                    && textAlign == paint.getTextAlign()
+                    && (typeface == null ? paint.getTypeface() == null : typeface.equals(paint.getTypeface()));
+        }
+    }
+}
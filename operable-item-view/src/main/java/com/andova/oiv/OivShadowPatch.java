@@ -0,0 +1,115 @@
+package com.andova.oiv;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * 阴影九宫格：按模糊半径、颜色与圆角光栅化一张小位图，绘制时把四角原样贴出、中间一像素拉伸到任意尺寸的形状周围
+ * <p>
+ * 本类不缓存位图，由使用方按各自的内存预算缓存{@link #rasterize(int)}的结果
+ */
+final class OivShadowPatch {
+    static final int SIDE_LEFT = 0x0001;
+    static final int SIDE_RIGHT = 0x0010;
+    static final int SIDE_TOP = 0x0100;
+    static final int SIDE_BOTTOM = 0x1000;
+    static final int SIDE_ALL = 0x1111;
+
+    private final int mRadius;
+    private final float mRx;
+    private final float mRy;
+    /**
+     * 角的宽高：向外的模糊范围 + 圆角 + 向内的模糊范围
+     */
+    private final int mPatchX;
+    private final int mPatchY;
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect mSrc = new Rect();
+    private final RectF mDst = new RectF();
+    private final RectF mShadow = new RectF();
+    private final RectF mClip = new RectF();
+
+    /**
+     * @param radius 模糊半径
+     * @param rx     形状的横向圆角半径
+     * @param ry     形状的纵向圆角半径
+     */
+    OivShadowPatch(int radius, float rx, float ry) {
+        mRadius = radius;
+        mRx = rx;
+        mRy = ry;
+        mPatchX = 2 * radius + (int) Math.ceil(rx);
+        mPatchY = 2 * radius + (int) Math.ceil(ry);
+    }
+
+    /**
+     * 模糊一次得到九宫格位图，开销较大，应由调用方缓存
+     */
+    Bitmap rasterize(int color) {
+        int width = 2 * mPatchX + 1;
+        int height = 2 * mPatchY + 1;
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(color);
+        if (mRadius > 0) paint.setMaskFilter(new BlurMaskFilter(mRadius, BlurMaskFilter.Blur.NORMAL));
+        new Canvas(bitmap).drawRoundRect(new RectF(mRadius, mRadius, width - mRadius, height - mRadius),
+                mRx, mRy, paint);
+        return bitmap;
+    }
+
+    /**
+     * 将{@link #rasterize(int)}得到的位图拉伸绘制到{@code shape}周围。
+     * 只绘制设置了阴影的边，以及至少一条相邻边设置了阴影的角，未设置的边不超出{@code shape}
+     *
+     * @param side {@link #SIDE_LEFT}等的组合
+     */
+    void draw(Canvas canvas, Bitmap bitmap, RectF shape, int dx, int dy, int side) {
+        int patchX = mPatchX;
+        int patchY = mPatchY;
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        boolean left = (side & SIDE_LEFT) == SIDE_LEFT;
+        boolean top = (side & SIDE_TOP) == SIDE_TOP;
+        boolean right = (side & SIDE_RIGHT) == SIDE_RIGHT;
+        boolean bottom = (side & SIDE_BOTTOM) == SIDE_BOTTOM;
+        mShadow.set(shape.left + dx - mRadius, shape.top + dy - mRadius,
+                shape.right + dx + mRadius, shape.bottom + dy + mRadius);
+        float cornerX = Math.min(patchX, mShadow.width() / 2);
+        float cornerY = Math.min(patchY, mShadow.height() / 2);
+        float x0 = mShadow.left, x1 = mShadow.left + cornerX, x2 = mShadow.right - cornerX, x3 = mShadow.right;
+        float y0 = mShadow.top, y1 = mShadow.top + cornerY, y2 = mShadow.bottom - cornerY, y3 = mShadow.bottom;
+
+        boolean clip = (side & SIDE_ALL) != SIDE_ALL;
+        if (clip) {
+            // 未设置阴影的边不超出形状，角上的模糊也不会露出来
+            mClip.set(left ? x0 : shape.left, top ? y0 : shape.top,
+                    right ? x3 : shape.right, bottom ? y3 : shape.bottom);
+            canvas.save();
+            canvas.clipRect(mClip);
+        }
+        // 四个角
+        if (left || top) drawPatch(canvas, bitmap, 0, 0, patchX, patchY, x0, y0, x1, y1);
+        if (right || top) drawPatch(canvas, bitmap, width - patchX, 0, width, patchY, x2, y0, x3, y1);
+        if (left || bottom) drawPatch(canvas, bitmap, 0, height - patchY, patchX, height, x0, y2, x1, y3);
+        if (right || bottom) drawPatch(canvas, bitmap, width - patchX, height - patchY, width, height, x2, y2, x3, y3);
+        // 四条边与中心，拉伸中间一像素
+        if (top) drawPatch(canvas, bitmap, patchX, 0, patchX + 1, patchY, x1, y0, x2, y1);
+        if (bottom) drawPatch(canvas, bitmap, patchX, height - patchY, patchX + 1, height, x1, y2, x2, y3);
+        if (left) drawPatch(canvas, bitmap, 0, patchY, patchX, patchY + 1, x0, y1, x1, y2);
+        if (right) drawPatch(canvas, bitmap, width - patchX, patchY, width, patchY + 1, x2, y1, x3, y2);
+        drawPatch(canvas, bitmap, patchX, patchY, patchX + 1, patchY + 1, x1, y1, x2, y2);
+        if (clip) canvas.restore();
+    }
+
+    private void drawPatch(Canvas canvas, Bitmap bitmap, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                           float dstLeft, float dstTop, float dstRight, float dstBottom) {
+        if (dstRight <= dstLeft || dstBottom <= dstTop) return;
+        mSrc.set(srcLeft, srcTop, srcRight, srcBottom);
+        mDst.set(dstLeft, dstTop, dstRight, dstBottom);
+        canvas.drawBitmap(bitmap, mSrc, mDst, mPaint);
+    }
+}
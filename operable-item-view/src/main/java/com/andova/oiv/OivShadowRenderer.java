@@ -0,0 +1,118 @@
+package com.andova.oiv;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.os.Build;
+import android.util.LruCache;
+
+/**
+ * 以九宫格方式绘制阴影：模糊后的阴影按参数只光栅化一次并在进程内缓存，
+ * 之后在硬件加速画布上拉伸绘制，无需再将控件切换为{@link android.view.View#LAYER_TYPE_SOFTWARE}
+ */
+class OivShadowRenderer {
+    /**
+     * 缓存的阴影位图总字节数上限
+     */
+    private static final int MAX_CACHE_BYTES = 1024 * 1024;
+    private static final LruCache<Key, Bitmap> sCache = new LruCache<Key, Bitmap>(MAX_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+            return value.getRowBytes() * value.getHeight();
+        }
+    };
+
+    /**
+     * 只包含影响阴影位图内容的参数，偏移与绘制的边在绘制时处理，不同的组合共用同一张位图
+     */
+    private final Key mKey;
+    private final int mDx;
+    private final int mDy;
+    private final int mSide;
+    private final OivShadowPatch mPatch;
+
+    /**
+     * @param side {@link OivShadowPatch#SIDE_LEFT}等的组合
+     */
+    OivShadowRenderer(int radius, int dx, int dy, int color, int side) {
+        mKey = new Key(radius, color);
+        mDx = dx;
+        mDy = dy;
+        mSide = side;
+        mPatch = new OivShadowPatch(radius, 0, 0);
+    }
+
+    static int cacheSize() {
+        return sCache.size();
+    }
+
+    static int hitCount() {
+        return sCache.hitCount();
+    }
+
+    static int missCount() {
+        return sCache.missCount();
+    }
+
+    private Bitmap obtainBitmap() {
+        Bitmap bitmap = sCache.get(mKey);
+        if (bitmap != null) return bitmap;
+        bitmap = mPatch.rasterize(mKey.color);
+        sCache.put(mKey, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * @param content 控件内容区域，阴影只绘制在该区域之外
+     */
+    void draw(Canvas canvas, RectF content) {
+        if (content.width() <= 0 || content.height() <= 0) return;
+        Bitmap bitmap = obtainBitmap();
+        canvas.save();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            clipOut(canvas, content);
+        } else {
+            clipOutCompat(canvas, content);
+        }
+        mPatch.draw(canvas, bitmap, content, mDx, mDy, mSide);
+        canvas.restore();
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private static void clipOut(Canvas canvas, RectF content) {
+        canvas.clipOutRect(content);
+    }
+
+    /**
+     * targetSdk 28起{@link Region.Op#DIFFERENCE}会抛出异常，仅用于API 26以下
+     */
+    @SuppressWarnings("deprecation")
+    private static void clipOutCompat(Canvas canvas, RectF content) {
+        canvas.clipRect(content, Region.Op.DIFFERENCE);
+    }
+
+    private static final class Key {
+        private final int radius;
+        private final int color;
+
+        Key(int radius, int color) {
+            this.radius = radius;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return radius == key.radius && color == key.color;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * radius + color;
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.andova.oiv;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static com.andova.oiv.OperableItemView.Ellipsize.OIV_ELLIPSIZE_NONE;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_RIGHT;
+import static com.andova.oiv.OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_AUTO;
+
+/**
+ * 解析后的{@link OperableItemView}样式，创建后不可修改；
+ * 同一主题下样式资源与行内属性都相同的控件共用同一份，画笔也一并共享，
+ * 控件修改字号等画笔属性时才复制自己的画笔
+ */
+public final class OivStyle {
+    /**
+     * 按主题分组缓存，主题回收后对应样式随之释放
+     */
+    private static final WeakHashMap<Resources.Theme, HashMap<Key, OivStyle>> sCache = new WeakHashMap<>();
+    private static int sResolveCount;
+    private static int sHitCount;
+    private static OivStyle sDefault;
+
+    final String bodyText;
+    final String briefText;
+    final int drawablePadding;
+    final int textInterval;
+    final int bodyTextColor;
+    final int briefTextColor;
+    final float dividerHeight;
+    final int gravity;
+    final int shadowColor;
+    final int shadowRadius;
+    final int shadowDx;
+    final int shadowDy;
+    final int shadowSide;
+    final int drawableChainStyle;
+    final int drawableAlignStyle;
+    final int measurePolicy;
+    final int bodyMaxLines;
+    final int briefMaxLines;
+    final int ellipsize;
+    /**
+     * 共享画笔，颜色只在绘制时写入，各控件共用不会相互影响
+     */
+    final TextPaint bodyPaint;
+    final TextPaint briefPaint;
+    private final Drawable.ConstantState mStartDrawableState;
+    private final Drawable.ConstantState mEndDrawableState;
+    private final Drawable.ConstantState mDividerDrawableState;
+    /**
+     * 所有图标都能以{@link Drawable.ConstantState}复制时才可被共享
+     */
+    private final boolean mShareable;
+    private Drawable mStartDrawable;
+    private Drawable mEndDrawable;
+    private Drawable mDividerDrawable;
+
+    private OivStyle(Builder builder) {
+        bodyText = builder.bodyText;
+        briefText = builder.briefText;
+        drawablePadding = builder.drawablePadding;
+        textInterval = builder.textInterval;
+        bodyTextColor = builder.bodyTextColor;
+        briefTextColor = builder.briefTextColor;
+        dividerHeight = builder.dividerHeight;
+        gravity = builder.gravity;
+        shadowColor = builder.shadowColor;
+        shadowRadius = builder.shadowRadius;
+        shadowDx = builder.shadowDx;
+        shadowDy = builder.shadowDy;
+        shadowSide = builder.shadowSide;
+        drawableChainStyle = builder.drawableChainStyle;
+        drawableAlignStyle = builder.drawableAlignStyle;
+        measurePolicy = builder.measurePolicy;
+        bodyMaxLines = builder.bodyMaxLines;
+        briefMaxLines = builder.briefMaxLines;
+        ellipsize = builder.ellipsize;
+        briefPaint = newTextPaint(builder.briefTypeface, builder.briefTextSize, briefTextColor, gravity);
+        bodyPaint = newTextPaint(builder.bodyTypeface, builder.bodyTextSize, bodyTextColor, gravity);
+
+        mStartDrawable = builder.startDrawable;
+        mEndDrawable = builder.endDrawable;
+        mDividerDrawable = builder.dividerDrawable;
+        mStartDrawableState = constantState(mStartDrawable);
+        mEndDrawableState = constantState(mEndDrawable);
+        mDividerDrawableState = constantState(mDividerDrawable);
+        mShareable = (mStartDrawable == null || mStartDrawableState != null)
+                && (mEndDrawable == null || mEndDrawableState != null)
+                && (mDividerDrawable == null || mDividerDrawableState != null);
+        if (mShareable) {
+            mStartDrawable = null;
+            mEndDrawable = null;
+            mDividerDrawable = null;
+        }
+    }
+
+    private static OivStyle parse(Context context, TypedArray ta) {
+        String bodyText = ta.getString(R.styleable.OperableItemView_oiv_bodyText);
+        if (TextUtils.isEmpty(bodyText)) {
+            bodyText = ta.getString(R.styleable.OperableItemView_oiv_bodyDefaultText);
+        }
+        String briefText = ta.getString(R.styleable.OperableItemView_oiv_briefText);
+        if (TextUtils.isEmpty(briefText)) {
+            briefText = ta.getString(R.styleable.OperableItemView_oiv_briefDefaultText);
+        }
+        return new Builder()
+                .setBodyText(bodyText)
+                .setBriefText(briefText)
+                .setDrawablePadding(ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_drawablePadding, 0))
+                .setTextInterval(ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_textInterval, 0))
+                .setBriefTextColor(ta.getColor(R.styleable.OperableItemView_oiv_briefTextColor, Color.BLACK))
+                .setBodyTextColor(ta.getColor(R.styleable.OperableItemView_oiv_bodyTextColor, Color.BLACK))
+                .setDividerHeight(ta.getDimension(R.styleable.OperableItemView_oiv_dividerHeight, 1f))
+                .setEndDrawable(ta.getDrawable(R.styleable.OperableItemView_oiv_endDrawable))
+                .setStartDrawable(ta.getDrawable(R.styleable.OperableItemView_oiv_startDrawable))
+                .setDividerDrawable(ta.getDrawable(R.styleable.OperableItemView_oiv_dividerDrawable))
+                .setGravity(ta.getInt(R.styleable.OperableItemView_oiv_gravity, 0))
+                .setShadow(ta.getInt(R.styleable.OperableItemView_oiv_shadowSide, 0),
+                        ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowRadius, 0),
+                        ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowDx, 10),
+                        ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowDy, 10),
+                        ta.getColor(R.styleable.OperableItemView_oiv_shadowColor, Color.BLACK))
+                .setDrawableChainStyle(ta.getInt(R.styleable.OperableItemView_oiv_drawableChainStyle, OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE))
+                .setDrawableAlignStyle(ta.getInt(R.styleable.OperableItemView_oiv_drawableAlignStyle, OIV_DRAWABLE_ALIGN_STYLE_NORMAL))
+                .setMeasurePolicy(ta.getInt(R.styleable.OperableItemView_oiv_measurePolicy, OIV_MEASURE_POLICY_AUTO))
+                .setBodyMaxLines(ta.getInt(R.styleable.OperableItemView_oiv_bodyMaxLines, 0))
+                .setBriefMaxLines(ta.getInt(R.styleable.OperableItemView_oiv_briefMaxLines, 0))
+                .setEllipsize(ta.getInt(R.styleable.OperableItemView_oiv_ellipsize, OIV_ELLIPSIZE_NONE))
+                .setBriefTypeface(OivTypefaceCache.obtain(context.getAssets(),
+                        ta.getString(R.styleable.OperableItemView_oiv_briefTextTypeface)))
+                .setBriefTextSize(ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_briefTextSize, 28))
+                .setBodyTypeface(OivTypefaceCache.obtain(context.getAssets(),
+                        ta.getString(R.styleable.OperableItemView_oiv_bodyTextTypeface)))
+                .setBodyTextSize(ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_bodyTextSize, 28))
+                .build();
+    }
+
+    /**
+     * 不经过属性解析的默认样式，与未设置任何属性时的XML样式相同
+     */
+    public static OivStyle getDefault() {
+        synchronized (sCache) {
+            if (sDefault == null) sDefault = new Builder().build();
+            return sDefault;
+        }
+    }
+
+    /**
+     * 取得{@code attrs}对应的样式，同一主题下相同的样式资源与行内属性只解析一次
+     */
+    public static OivStyle obtain(Context context, AttributeSet attrs) {
+        Resources.Theme theme = context.getTheme();
+        Key key = new Key(attrs);
+        synchronized (sCache) {
+            HashMap<Key, OivStyle> styles = sCache.get(theme);
+            OivStyle style = styles == null ? null : styles.get(key);
+            if (style != null) {
+                sHitCount++;
+                return style;
+            }
+        }
+        TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.OperableItemView);
+        OivStyle style = parse(context, ta);
+        ta.recycle();
+        synchronized (sCache) {
+            sResolveCount++;
+            if (!style.mShareable) return style;
+            HashMap<Key, OivStyle> styles = sCache.get(theme);
+            if (styles == null) {
+                styles = new HashMap<>();
+                sCache.put(theme, styles);
+            }
+            styles.put(key, style);
+        }
+        return style;
+    }
+
+    /**
+     * 实际解析样式属性的次数
+     */
+    public static int resolveCount() {
+        synchronized (sCache) {
+            return sResolveCount;
+        }
+    }
+
+    public static int hitCount() {
+        synchronized (sCache) {
+            return sHitCount;
+        }
+    }
+
+    public static void clear() {
+        synchronized (sCache) {
+            sCache.clear();
+            sResolveCount = 0;
+            sHitCount = 0;
+        }
+    }
+
+    /**
+     * 每个控件持有自己的图标实例，边界、可见性等状态互不影响
+     */
+    Drawable newStartDrawable(Resources res) {
+        return newDrawable(mStartDrawableState, mStartDrawable, res);
+    }
+
+    Drawable newEndDrawable(Resources res) {
+        return newDrawable(mEndDrawableState, mEndDrawable, res);
+    }
+
+    Drawable newDividerDrawable(Resources res) {
+        return newDrawable(mDividerDrawableState, mDividerDrawable, res);
+    }
+
+    private static Drawable newDrawable(Drawable.ConstantState state, Drawable drawable, Resources res) {
+        if (drawable != null) return drawable;
+        return state == null ? null : state.newDrawable(res);
+    }
+
+    private static Drawable.ConstantState constantState(Drawable drawable) {
+        return drawable == null ? null : drawable.getConstantState();
+    }
+
+    private static TextPaint newTextPaint(Typeface typeface, int textSize, int color, int gravity) {
+        TextPaint paint = new TextPaint();
+        paint.setColor(color);
+        paint.setTypeface(typeface);
+        paint.setTextSize(textSize);
+        switch (OivLayoutEngine.horizontalGravity(gravity)) {
+            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
+                paint.setTextAlign(Paint.Align.CENTER);
+                break;
+            case OIV_GRAVITY_FLAG_RIGHT:
+                paint.setTextAlign(Paint.Align.RIGHT);
+                break;
+            case OIV_GRAVITY_FLAG_LEFT:
+            default:
+                paint.setTextAlign(Paint.Align.LEFT);
+                break;
+        }
+        paint.setAntiAlias(true);
+        return paint;
+    }
+
+    /**
+     * 样式资源与本控件的行内属性原值；原值中的资源引用与主题属性在同一主题下解析结果相同
+     */
+    private static final class Key {
+        private final int styleRes;
+        private final int[] names;
+        private final String[] values;
+        private final int hash;
+
+        Key(AttributeSet attrs) {
+            if (attrs == null) {
+                styleRes = 0;
+                names = new int[0];
+                values = new String[0];
+            } else {
+                styleRes = attrs.getStyleAttribute();
+                int count = 0;
+                int[] names = new int[attrs.getAttributeCount()];
+                String[] values = new String[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    int name = attrs.getAttributeNameResource(i);
+                    if (!isStyleable(name)) continue;
+                    names[count] = name;
+                    values[count] = attrs.getAttributeValue(i);
+                    count++;
+                }
+                this.names = Arrays.copyOf(names, count);
+                this.values = Arrays.copyOf(values, count);
+            }
+            hash = 31 * (31 * styleRes + Arrays.hashCode(names)) + Arrays.hashCode(values);
+        }
+
+        private static boolean isStyleable(int name) {
+            if (name == 0) return false;
+            for (int attr : R.styleable.OperableItemView) {
+                if (attr == name) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return styleRes == key.styleRes && Arrays.equals(names, key.names) && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 在代码中构建样式，不经过{@link TypedArray}；默认值与XML属性的默认值一致，尺寸单位均为px。
+     * 同一样式可供多个控件共用，图标需支持{@link Drawable.ConstantState}才能为各控件生成独立实例
+     * <pre>
+     * OivStyle style = new OivStyle.Builder()
+     *         .setBodyTextSize(32)
+     *         .setEndDrawable(arrow)
+     *         .build();
+     * OperableItemView view = OperableItemView.create(context, style);
+     * </pre>
+     */
+    public static final class Builder {
+        private String bodyText;
+        private String briefText;
+        private int drawablePadding;
+        private int textInterval;
+        private int bodyTextColor = Color.BLACK;
+        private int briefTextColor = Color.BLACK;
+        private float dividerHeight = 1f;
+        private Drawable startDrawable;
+        private Drawable endDrawable;
+        private Drawable dividerDrawable;
+        private int gravity;
+        private int shadowColor = Color.BLACK;
+        private int shadowRadius;
+        private int shadowDx = 10;
+        private int shadowDy = 10;
+        private int shadowSide;
+        private int drawableChainStyle = OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+        private int drawableAlignStyle = OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+        private int measurePolicy = OIV_MEASURE_POLICY_AUTO;
+        private int bodyMaxLines;
+        private int briefMaxLines;
+        private int ellipsize = OIV_ELLIPSIZE_NONE;
+        private Typeface bodyTypeface;
+        private Typeface briefTypeface;
+        private int bodyTextSize = 28;
+        private int briefTextSize = 28;
+
+        public Builder setBodyText(String bodyText) {
+            this.bodyText = bodyText;
+            return this;
+        }
+
+        public Builder setBriefText(String briefText) {
+            this.briefText = briefText;
+            return this;
+        }
+
+        public Builder setDrawablePadding(int drawablePadding) {
+            this.drawablePadding = drawablePadding;
+            return this;
+        }
+
+        public Builder setTextInterval(int textInterval) {
+            this.textInterval = textInterval;
+            return this;
+        }
+
+        public Builder setBodyTextColor(int bodyTextColor) {
+            this.bodyTextColor = bodyTextColor;
+            return this;
+        }
+
+        public Builder setBriefTextColor(int briefTextColor) {
+            this.briefTextColor = briefTextColor;
+            return this;
+        }
+
+        public Builder setBodyTextSize(int bodyTextSize) {
+            this.bodyTextSize = bodyTextSize;
+            return this;
+        }
+
+        public Builder setBriefTextSize(int briefTextSize) {
+            this.briefTextSize = briefTextSize;
+            return this;
+        }
+
+        public Builder setBodyTypeface(Typeface bodyTypeface) {
+            this.bodyTypeface = bodyTypeface;
+            return this;
+        }
+
+        public Builder setBriefTypeface(Typeface briefTypeface) {
+            this.briefTypeface = briefTypeface;
+            return this;
+        }
+
+        public Builder setDividerHeight(float dividerHeight) {
+            this.dividerHeight = dividerHeight;
+            return this;
+        }
+
+        public Builder setStartDrawable(Drawable startDrawable) {
+            this.startDrawable = startDrawable;
+            return this;
+        }
+
+        public Builder setEndDrawable(Drawable endDrawable) {
+            this.endDrawable = endDrawable;
+            return this;
+        }
+
+        public Builder setDividerDrawable(Drawable dividerDrawable) {
+            this.dividerDrawable = dividerDrawable;
+            return this;
+        }
+
+        public Builder setGravity(int gravity) {
+            this.gravity = gravity;
+            return this;
+        }
+
+        /**
+         * @param side 取值同oiv_shadowSide，0表示没有阴影
+         */
+        public Builder setShadow(int side, int radius, int dx, int dy, int color) {
+            this.shadowSide = side;
+            this.shadowRadius = radius;
+            this.shadowDx = dx;
+            this.shadowDy = dy;
+            this.shadowColor = color;
+            return this;
+        }
+
+        public Builder setDrawableChainStyle(@OperableItemView.DrawableChainStyle int drawableChainStyle) {
+            this.drawableChainStyle = drawableChainStyle;
+            return this;
+        }
+
+        public Builder setDrawableAlignStyle(@OperableItemView.DrawableAlignStyle int drawableAlignStyle) {
+            this.drawableAlignStyle = drawableAlignStyle;
+            return this;
+        }
+
+        public Builder setMeasurePolicy(@OperableItemView.MeasurePolicy int measurePolicy) {
+            this.measurePolicy = measurePolicy;
+            return this;
+        }
+
+        /**
+         * @param bodyMaxLines 小于等于0表示不限行数
+         */
+        public Builder setBodyMaxLines(int bodyMaxLines) {
+            this.bodyMaxLines = bodyMaxLines;
+            return this;
+        }
+
+        public Builder setBriefMaxLines(int briefMaxLines) {
+            this.briefMaxLines = briefMaxLines;
+            return this;
+        }
+
+        public Builder setEllipsize(@OperableItemView.Ellipsize int ellipsize) {
+            this.ellipsize = ellipsize;
+            return this;
+        }
+
+        public OivStyle build() {
+            return new OivStyle(this);
+        }
+    }
+}
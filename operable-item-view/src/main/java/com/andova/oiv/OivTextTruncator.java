@@ -0,0 +1,82 @@
+package com.andova.oiv;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+/**
+ * 按最大行数截取文本的可见部分：先用{@link android.graphics.Paint#breakText}逐行估算，
+ * 只对前几行的字符断行，超长文本的开销因此只与可见行数有关
+ */
+final class OivTextTruncator {
+    private static final String ELLIPSIS = "…";
+    /**
+     * 估算单行字符数时假定的最窄字宽，以字号为单位
+     */
+    private static final float MIN_CHAR_WIDTH_EM = 0.1f;
+
+    private OivTextTruncator() {
+    }
+
+    /**
+     * @param maxLines 小于等于0表示不限行数
+     * @param ellipsize 截断后是否在最后一行末尾加省略号
+     * @return 在给定宽度下不超过maxLines行的文本，无需截断时返回原文本
+     */
+    static String truncate(String text, TextPaint paint, int width, int maxLines, boolean ellipsize) {
+        if (maxLines <= 0 || width <= 0 || TextUtils.isEmpty(text)) return text;
+        int window = (int) (width / (paint.getTextSize() * MIN_CHAR_WIDTH_EM)) + 1;
+        int end = visibleEnd(text, paint, width, maxLines, window);
+        // 整段文本在一行内放得下时无需再断行校验
+        if (end >= text.length() && end <= window && indexOfNewLine(text, 0, end) < 0
+                && paint.measureText(text) <= width) return text;
+
+        String visible = end < text.length() ? text.substring(0, end) : text;
+        StaticLayout layout = new StaticLayout(visible, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+        int lineCount = layout.getLineCount();
+        if (end >= text.length() && lineCount <= maxLines) return text;
+
+        int lastLine = Math.min(lineCount, maxLines) - 1;
+        int lastStart = layout.getLineStart(lastLine);
+        int lastEnd = layout.getLineEnd(lastLine);
+        int newLine = indexOfNewLine(visible, lastStart, lastEnd);
+        if (newLine >= 0) lastEnd = newLine;
+        String last = visible.substring(lastStart, lastEnd);
+        if (ellipsize) last = ellipsizeLine(last, paint, width);
+        return visible.substring(0, lastStart) + last;
+    }
+
+    /**
+     * 逐行累加breakText能放下的字符数，只向后查看window个字符，返回前maxLines行的结束位置
+     */
+    private static int visibleEnd(String text, TextPaint paint, int width, int maxLines, int window) {
+        int length = text.length();
+        int start = 0;
+        for (int line = 0; line < maxLines && start < length; line++) {
+            int limit = Math.min(length, start + window);
+            int newLine = indexOfNewLine(text, start, limit);
+            int lineEnd = newLine >= 0 ? newLine : limit;
+            int count = paint.breakText(text, start, lineEnd, true, width, null);
+            start += Math.max(count, 1);
+            if (newLine >= 0 && start >= newLine) start = newLine + 1;
+        }
+        return Math.min(start, length);
+    }
+
+    private static int indexOfNewLine(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    private static String ellipsizeLine(String line, TextPaint paint, int width) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) end--;
+        float available = width - paint.measureText(ELLIPSIS);
+        if (available <= 0) return ELLIPSIS;
+        int count = paint.breakText(line, 0, end, true, available, null);
+        return line.substring(0, count) + ELLIPSIS;
+    }
+}
@@ -0,0 +1,73 @@
+package com.andova.oiv;
+
+import android.content.res.AssetManager;
+import android.graphics.Typeface;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.util.HashMap;
+
+/**
+ * 进程内共享的字体缓存，以assets路径为键，每个字体只加载一次；
+ * 加载失败的路径同样记录下来，不会反复抛出异常
+ */
+public final class OivTypefaceCache {
+    private static final String TAG = OivTypefaceCache.class.getSimpleName();
+    private static final HashMap<String, Typeface> sCache = new HashMap<>();
+    private static int sLoadCount;
+    private static int sHitCount;
+
+    private OivTypefaceCache() {
+    }
+
+    /**
+     * @param path assets下的字体路径，为空时直接返回null
+     */
+    static Typeface obtain(AssetManager assets, String path) {
+        if (TextUtils.isEmpty(path)) return null;
+        synchronized (sCache) {
+            if (sCache.containsKey(path)) {
+                sHitCount++;
+                return sCache.get(path);
+            }
+            Typeface typeface = null;
+            try {
+                typeface = Typeface.createFromAsset(assets, path);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Failed to load typeface from assets: " + path);
+            }
+            sLoadCount++;
+            sCache.put(path, typeface);
+            return typeface;
+        }
+    }
+
+    /**
+     * 实际从assets加载字体的次数
+     */
+    public static int loadCount() {
+        synchronized (sCache) {
+            return sLoadCount;
+        }
+    }
+
+    public static int hitCount() {
+        synchronized (sCache) {
+            return sHitCount;
+        }
+    }
+
+    public static int size() {
+        synchronized (sCache) {
+            return sCache.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (sCache) {
+            sCache.clear();
+            sLoadCount = 0;
+            sHitCount = 0;
+        }
+    }
+}
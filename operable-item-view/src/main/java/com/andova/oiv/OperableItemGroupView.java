@@ -0,0 +1,566 @@
+package com.andova.oiv;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.text.Layout;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.andova.oiv.OperableItemView.Ellipsize.OIV_ELLIPSIZE_END;
+
+/**
+ * 在一个控件内绘制一组{@link OperableItemView}样式的行，适合内容固定的长设置列表：
+ * 所有行共用一份{@link OivStyle}，几何计算复用{@link OivLayoutEngine}，
+ * 只有一次测量、布局与绘制，修改某一行时也只重绘该行所在区域。
+ * 不支持切换动画与阴影；无障碍服务通过{@link ExploreByTouchHelper}把每行及其图标作为虚拟视图访问
+ * <pre>
+ * OperableItemGroupView group = new OperableItemGroupView(context, style);
+ * List&lt;OperableItemGroupView.Item&gt; items = new ArrayList&lt;&gt;();
+ * items.add(new OperableItemGroupView.Item("Wi-Fi", "On"));
+ * group.setItems(items);
+ * </pre>
+ */
+public class OperableItemGroupView extends View {
+    private OivStyle mStyle;
+    private Drawable mStartDrawable;
+    private Drawable mEndDrawable;
+    private Drawable mDividerDrawable;
+    private int mMinRowHeight;
+    private final List<Row> mRows = new ArrayList<>();
+    /**
+     * 行文本布局所依据的宽度，宽度变化时所有行重新断行
+     */
+    private int mLayoutWidthPx;
+    private int mRowInvalidateCount;
+
+    private int mX, mY;
+    private OnClickItemListener mListener;
+    private final RowTouchHelper mTouchHelper;
+
+    /**
+     * 行内被点击的部分，与行的位置一起编码为虚拟视图id
+     */
+    private static final int PART_ROW = 0;
+    private static final int PART_START_DRAWABLE = 1;
+    private static final int PART_END_DRAWABLE = 2;
+    private static final int PART_COUNT = 3;
+
+    public OperableItemGroupView(Context context) {
+        this(context, OivStyle.getDefault());
+    }
+
+    public OperableItemGroupView(Context context, OivStyle style) {
+        super(context);
+        applyStyle(style == null ? OivStyle.getDefault() : style);
+        mTouchHelper = new RowTouchHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mTouchHelper);
+    }
+
+    /**
+     * 样式属性与{@link OperableItemView}相同，其中的文本属性被忽略，各行文本由{@link Item}提供
+     */
+    public OperableItemGroupView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        applyStyle(OivStyle.obtain(context, attrs));
+        mTouchHelper = new RowTouchHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mTouchHelper);
+    }
+
+    private void applyStyle(OivStyle style) {
+        mStyle = style;
+        Resources res = getResources();
+        mStartDrawable = style.newStartDrawable(res);
+        mEndDrawable = style.newEndDrawable(res);
+        mDividerDrawable = style.newDividerDrawable(res);
+    }
+
+    public void setStyle(OivStyle style) {
+        if (style == null || style == mStyle) return;
+        applyStyle(style);
+        for (Row row : mRows) row.layoutDirty = true;
+        requestLayout();
+        invalidate();
+        mTouchHelper.invalidateRoot();
+    }
+
+    /**
+     * 行高默认由内容决定，与自适应高度的{@link OperableItemView}相同
+     */
+    public void setMinRowHeight(int minRowHeight) {
+        if (mMinRowHeight == minRowHeight) return;
+        mMinRowHeight = minRowHeight;
+        for (Row row : mRows) row.layoutDirty = true;
+        requestLayout();
+        invalidate();
+    }
+
+    public void setItems(List<Item> items) {
+        mRows.clear();
+        if (items != null) {
+            for (Item item : items) mRows.add(new Row(item));
+        }
+        requestLayout();
+        invalidate();
+        mTouchHelper.invalidateRoot();
+    }
+
+    public int getItemCount() {
+        return mRows.size();
+    }
+
+    public Item getItem(int position) {
+        return mRows.get(position).item;
+    }
+
+    public void setBodyText(int position, String bodyText) {
+        Item item = mRows.get(position).item;
+        if (TextUtils.equals(item.bodyText, bodyText)) return;
+        onRowChanged(position, new Item(bodyText, item.briefText, item.startDrawableVisible, item.endDrawableVisible));
+    }
+
+    public void setBriefText(int position, String briefText) {
+        Item item = mRows.get(position).item;
+        if (TextUtils.equals(item.briefText, briefText)) return;
+        onRowChanged(position, new Item(item.bodyText, briefText, item.startDrawableVisible, item.endDrawableVisible));
+    }
+
+    public void setDrawableVisible(int position, boolean startVisible, boolean endVisible) {
+        Item item = mRows.get(position).item;
+        if (item.startDrawableVisible == startVisible && item.endDrawableVisible == endVisible) return;
+        onRowChanged(position, new Item(item.bodyText, item.briefText, startVisible, endVisible));
+    }
+
+    /**
+     * {@link Item}不可修改，行内容变化时替换为新的Item；行高不变时只重绘该行，否则重新布局整个分组
+     */
+    private void onRowChanged(int position, Item item) {
+        Row row = mRows.get(position);
+        boolean drawablesChanged = row.item.startDrawableVisible != item.startDrawableVisible
+                || row.item.endDrawableVisible != item.endDrawableVisible;
+        row.item = item;
+        row.layoutDirty = true;
+        int width = getWidth();
+        if (width <= 0) {
+            requestLayout();
+            mTouchHelper.invalidateRoot();
+            return;
+        }
+        int oldHeight = row.bottom - row.top;
+        resolveRow(row, width);
+        if (row.height != oldHeight) {
+            requestLayout();
+            invalidate();
+            mTouchHelper.invalidateRoot();
+            return;
+        }
+        row.result = OivLayoutEngine.layout(rowSpec(row, width, row.height));
+        mRowInvalidateCount++;
+        invalidate(0, row.top, width, row.bottom);
+        // 图标显隐会增减虚拟视图，其余修改只影响该行的节点内容
+        if (drawablesChanged) {
+            mTouchHelper.invalidateRoot();
+        } else {
+            mTouchHelper.invalidateVirtualView(virtualViewId(position, PART_ROW));
+        }
+    }
+
+    /**
+     * 因单行修改而局部重绘的次数，供测试校验
+     */
+    int getRowInvalidateCount() {
+        return mRowInvalidateCount;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = getPaddingTop() + getPaddingBottom();
+        for (Row row : mRows) {
+            resolveRow(row, width);
+            height += row.height;
+        }
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        int width = right - left;
+        int rowTop = getPaddingTop();
+        for (Row row : mRows) {
+            resolveRow(row, width);
+            row.top = rowTop;
+            row.bottom = rowTop + row.height;
+            row.result = OivLayoutEngine.layout(rowSpec(row, width, row.height));
+            rowTop = row.bottom;
+        }
+    }
+
+    /**
+     * 按宽度为行断行并计算行高，宽度与内容不变时直接返回
+     */
+    private void resolveRow(Row row, int width) {
+        if (width != mLayoutWidthPx) {
+            mLayoutWidthPx = width;
+            for (Row r : mRows) r.layoutDirty = true;
+        }
+        if (!row.layoutDirty || width <= 0) return;
+        int maxTextWidth = OivLayoutEngine.usableMaxTextWidth(rowSpec(row, width, 0));
+        boolean ellipsize = mStyle.ellipsize == OIV_ELLIPSIZE_END;
+        row.briefLayout = OperableItemView.newTextLayout(row.item.briefText, mStyle.briefPaint,
+                mStyle.drawableChainStyle, maxTextWidth, mStyle.briefMaxLines, ellipsize);
+        row.bodyLayout = OperableItemView.newTextLayout(row.item.bodyText, mStyle.bodyPaint,
+                mStyle.drawableChainStyle, maxTextWidth, mStyle.bodyMaxLines, ellipsize);
+        row.height = Math.max(mMinRowHeight, (int) OivLayoutEngine.contentHeight(rowSpec(row, width, 0)));
+        row.layoutDirty = false;
+    }
+
+    private OivLayoutSpec rowSpec(Row row, int width, int height) {
+        OivLayoutSpec.Builder builder = new OivLayoutSpec.Builder()
+                .size(width, height)
+                .padding(getPaddingLeft(), 0, getPaddingRight(), 0)
+                .gravity(mStyle.gravity)
+                .drawableChainStyle(mStyle.drawableChainStyle)
+                .drawableAlignStyle(mStyle.drawableAlignStyle)
+                .drawablePadding(mStyle.drawablePadding)
+                .textInterval(mStyle.textInterval)
+                .dividerHeight(mStyle.dividerHeight)
+                .divider(mDividerDrawable != null)
+                .briefText(TextUtils.isEmpty(row.item.briefText), true, getTextHeight(mStyle.briefPaint))
+                .bodyText(TextUtils.isEmpty(row.item.bodyText), true, getTextHeight(mStyle.bodyPaint));
+        if (mStartDrawable != null) {
+            builder.startDrawable(row.item.startDrawableVisible,
+                    mStartDrawable.getIntrinsicWidth(), mStartDrawable.getIntrinsicHeight());
+        }
+        if (mEndDrawable != null) {
+            builder.endDrawable(row.item.endDrawableVisible,
+                    mEndDrawable.getIntrinsicWidth(), mEndDrawable.getIntrinsicHeight());
+        }
+        if (row.briefLayout != null && row.bodyLayout != null) {
+            builder.textLayout(row.briefLayout.getWidth(), row.briefLayout.getHeight(),
+                    row.bodyLayout.getWidth(), row.bodyLayout.getHeight());
+        }
+        return builder.build();
+    }
+
+    private float getTextHeight(Paint paint) {
+        return paint.descent() - paint.ascent();
+    }
+
+    /**
+     * 所有行在同一次onDraw中绘制，图标与分割线各只有一个实例，绘制每行前重新设置边界
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        for (Row row : mRows) {
+            if (row.result == null) continue;
+            // 局部重绘时跳过裁剪区域以外的行
+            if (canvas.quickReject(0, row.top, getWidth(), row.bottom, Canvas.EdgeType.AA)) continue;
+            drawRow(canvas, row);
+        }
+    }
+
+    private void drawRow(Canvas canvas, Row row) {
+        OivLayoutResult result = row.result;
+        canvas.save();
+        canvas.translate(0, row.top);
+        if (!TextUtils.isEmpty(row.item.bodyText)) {
+            drawTextLayout(canvas, row.bodyLayout, mStyle.bodyTextColor, result.bodyTextX, result.bodyTextY);
+        }
+        if (!TextUtils.isEmpty(row.item.briefText)) {
+            drawTextLayout(canvas, row.briefLayout, mStyle.briefTextColor, result.briefTextX, result.briefTextY);
+        }
+        if (result.startDrawableShown) {
+            mStartDrawable.setBounds(result.startDrawableLeft, result.startDrawableTop,
+                    result.startDrawableRight, result.startDrawableBottom);
+            mStartDrawable.draw(canvas);
+        }
+        if (result.endDrawableShown) {
+            mEndDrawable.setBounds(result.endDrawableLeft, result.endDrawableTop,
+                    result.endDrawableRight, result.endDrawableBottom);
+            mEndDrawable.draw(canvas);
+        }
+        if (result.dividerShown) {
+            mDividerDrawable.setBounds(result.dividerLeft, result.dividerTop,
+                    result.dividerRight, result.dividerBottom);
+            mDividerDrawable.draw(canvas);
+        }
+        canvas.restore();
+    }
+
+    /**
+     * 颜色只在绘制时写入布局所用画笔，与{@link OperableItemView}一致
+     */
+    private void drawTextLayout(Canvas canvas, Layout layout, int color, int x, int y) {
+        if (layout == null) return;
+        canvas.save();
+        canvas.translate(x, y);
+        layout.getPaint().setColor(color);
+        layout.draw(canvas);
+        canvas.restore();
+    }
+
+    /**
+     * @return 坐标所在的行，不在任何行内时返回-1
+     */
+    int findRow(int y) {
+        int low = 0;
+        int high = mRows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Row row = mRows.get(mid);
+            if (y < row.top) {
+                high = mid - 1;
+            } else if (y >= row.bottom) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 坐标落在行内的哪一部分，坐标相对于控件
+     */
+    private int findPart(Row row, int x, int y) {
+        OivLayoutResult result = row.result;
+        y -= row.top;
+        if (result.startDrawableShown && x >= result.startDrawableLeft && x < result.startDrawableRight
+                && y >= result.startDrawableTop && y < result.startDrawableBottom) {
+            return PART_START_DRAWABLE;
+        }
+        if (result.endDrawableShown && x >= result.endDrawableLeft && x < result.endDrawableRight
+                && y >= result.endDrawableTop && y < result.endDrawableBottom) {
+            return PART_END_DRAWABLE;
+        }
+        return PART_ROW;
+    }
+
+    private boolean dispatchItemClick(int position, int part) {
+        if (mListener == null) return false;
+        switch (part) {
+            case PART_START_DRAWABLE:
+                mListener.onStartDrawableClick(this, position);
+                break;
+            case PART_END_DRAWABLE:
+                mListener.onEndDrawableClick(this, position);
+                break;
+            default:
+                mListener.onItemClick(this, position);
+                break;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+            case MotionEvent.ACTION_MOVE:
+                mX = (int) event.getX();
+                mY = (int) event.getY();
+                if (mListener != null) return true;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                break;
+            case MotionEvent.ACTION_UP:
+                int position = findRow(mY);
+                if (position < 0 || mListener == null) break;
+                Row row = mRows.get(position);
+                if (row.result == null) break;
+                // 播放点击音效并发送无障碍点击事件
+                performClick();
+                dispatchItemClick(position, findPart(row, mX, mY));
+                return true;
+        }
+        return super.onTouchEvent(event);
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mTouchHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return mTouchHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, @Nullable Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        mTouchHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    private static int virtualViewId(int position, int part) {
+        return position * PART_COUNT + part;
+    }
+
+    RowTouchHelper getTouchHelper() {
+        return mTouchHelper;
+    }
+
+    public void setOnClickItemListener(OnClickItemListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * 与{@link OperableItemView.OnClickDrawableListener}对应，额外带上被点击行的位置
+     */
+    public interface OnClickItemListener {
+        void onItemClick(OperableItemGroupView group, int position);
+
+        void onStartDrawableClick(OperableItemGroupView group, int position);
+
+        void onEndDrawableClick(OperableItemGroupView group, int position);
+    }
+
+    /**
+     * 一行的内容，创建后不可修改，加入分组后请通过分组的setBodyText等方法修改，以便只重绘对应的行；
+     * 图标本身来自分组的样式，这里只决定是否显示
+     */
+    public static final class Item {
+        final String bodyText;
+        final String briefText;
+        final boolean startDrawableVisible;
+        final boolean endDrawableVisible;
+
+        public Item(String bodyText, String briefText) {
+            this(bodyText, briefText, true, true);
+        }
+
+        public Item(String bodyText, String briefText, boolean startDrawableVisible, boolean endDrawableVisible) {
+            this.bodyText = bodyText;
+            this.briefText = briefText;
+            this.startDrawableVisible = startDrawableVisible;
+            this.endDrawableVisible = endDrawableVisible;
+        }
+
+        public String getBodyText() {
+            return bodyText;
+        }
+
+        public String getBriefText() {
+            return briefText;
+        }
+
+        public boolean isStartDrawableVisible() {
+            return startDrawableVisible;
+        }
+
+        public boolean isEndDrawableVisible() {
+            return endDrawableVisible;
+        }
+    }
+
+    /**
+     * 每行及其显示中的首尾图标各为一个虚拟视图，点击操作与触摸一样交给{@link OnClickItemListener}
+     */
+    final class RowTouchHelper extends ExploreByTouchHelper {
+        private final Rect mBounds = new Rect();
+
+        RowTouchHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int position = findRow((int) y);
+            if (position < 0) return INVALID_ID;
+            Row row = mRows.get(position);
+            if (row.result == null) return INVALID_ID;
+            return virtualViewId(position, findPart(row, (int) x, (int) y));
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int i = 0; i < mRows.size(); i++) {
+                OivLayoutResult result = mRows.get(i).result;
+                if (result == null) continue;
+                virtualViewIds.add(virtualViewId(i, PART_ROW));
+                if (result.startDrawableShown) virtualViewIds.add(virtualViewId(i, PART_START_DRAWABLE));
+                if (result.endDrawableShown) virtualViewIds.add(virtualViewId(i, PART_END_DRAWABLE));
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+            int position = virtualViewId / PART_COUNT;
+            int part = virtualViewId % PART_COUNT;
+            Row row = position < mRows.size() ? mRows.get(position) : null;
+            if (row == null || row.result == null) {
+                // 行已被移除，节点仍需要非空的描述与边界
+                node.setContentDescription("");
+                mBounds.setEmpty();
+                node.setBoundsInParent(mBounds);
+                return;
+            }
+            OivLayoutResult result = row.result;
+            // 节点必须带有文本或描述，正文为空时使用空串
+            String label = row.item.bodyText == null ? "" : row.item.bodyText;
+            switch (part) {
+                case PART_START_DRAWABLE:
+                    mBounds.set(result.startDrawableLeft, result.startDrawableTop,
+                            result.startDrawableRight, result.startDrawableBottom);
+                    mBounds.offset(0, row.top);
+                    node.setContentDescription(label);
+                    break;
+                case PART_END_DRAWABLE:
+                    mBounds.set(result.endDrawableLeft, result.endDrawableTop,
+                            result.endDrawableRight, result.endDrawableBottom);
+                    mBounds.offset(0, row.top);
+                    node.setContentDescription(label);
+                    break;
+                default:
+                    mBounds.set(0, row.top, getWidth(), row.bottom);
+                    node.setText(TextUtils.isEmpty(row.item.briefText) ? label : label + " " + row.item.briefText);
+                    break;
+            }
+            node.setBoundsInParent(mBounds);
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, @Nullable Bundle arguments) {
+            if (action != AccessibilityNodeInfoCompat.ACTION_CLICK) return false;
+            int position = virtualViewId / PART_COUNT;
+            if (position >= mRows.size()) return false;
+            if (!dispatchItemClick(position, virtualViewId % PART_COUNT)) return false;
+            sendEventForVirtualView(virtualViewId, AccessibilityEvent.TYPE_VIEW_CLICKED);
+            return true;
+        }
+    }
+
+    private static final class Row {
+        Item item;
+        boolean layoutDirty = true;
+        Layout bodyLayout;
+        Layout briefLayout;
+        int height;
+        int top;
+        int bottom;
+        OivLayoutResult result;
+
+        Row(Item item) {
+            this.item = item;
+        }
+    }
+}
@@ -2,24 +2,23 @@ package com.andova.oiv;
 
 import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.content.res.Resources;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.RectF;
-import android.graphics.Typeface;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
+import android.os.Build;
 import android.support.annotation.DimenRes;
 import android.support.annotation.IntDef;
 import android.support.annotation.Nullable;
+import android.text.BoringLayout;
 import android.text.Layout;
 import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 
@@ -33,6 +32,8 @@ import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_AL
 import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
 import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
 import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static com.andova.oiv.OperableItemView.Ellipsize.OIV_ELLIPSIZE_END;
+import static com.andova.oiv.OperableItemView.Ellipsize.OIV_ELLIPSIZE_NONE;
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_BOTTOM;
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER;
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
@@ -40,6 +41,10 @@ import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_VE
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_RIGHT;
 import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
+import static com.andova.oiv.OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_AUTO;
+import static com.andova.oiv.OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_BACKGROUND;
+import static com.andova.oiv.OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_CONTENT;
+import static com.andova.oiv.OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_EXACT;
 
 /**
  * Created by KZax1l on 2017/5/21.
@@ -47,13 +52,14 @@ import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
  * @author KZax1l
  */
 public class OperableItemView extends View implements ValueAnimator.AnimatorUpdateListener {
+    private OivStyle mStyle;
     private TextPaint mBodyPaint;
     private TextPaint mBriefPaint;
     private Drawable mEndDrawable;
     private Drawable mStartDrawable;
     private Drawable mDividerDrawable;
-    private StaticLayout mBodyStcLayout;
-    private StaticLayout mBriefStcLayout;
+    private Layout mBodyStcLayout;
+    private Layout mBriefStcLayout;
 
     private int mDrawablePadding;
     private int mTextInterval;
@@ -65,30 +71,110 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
     private boolean mBriefTextEnable = true;
     private boolean mBodyTextEnable = true;
 
-    private boolean mRefresh = true;
     private boolean mAnimate = false;
     private int measureHeightMode;
     private int mPaddingTop;
     private int mPaddingBottom;
     private int mMaxTextWidth;
 
+    /**
+     * 文本布局缓存：只有文本、字号、图标可见性或可用宽度变化时才重新断行
+     */
+    private boolean mBodyLayoutDirty = true;
+    private boolean mBriefLayoutDirty = true;
+    private int mLayoutWidthPx;
+    private int mStaticLayoutBuildCount;
+    private int mBoringLayoutCount;
+    private OivPrecomputedText mPrecomputedText;
+    private int mPrecomputedTextHitCount;
+    /**
+     * 最近几次(widthMeasureSpec, heightMeasureSpec)的测量结果，父布局在同一轮中重复测量时直接复用
+     */
+    private static final int MEASURE_CACHE_SIZE = 4;
+    private final int[] mMeasureCache = new int[MEASURE_CACHE_SIZE * 4];
+    private int mMeasureCacheCount;
+    private int mMeasureCacheNext;
+    private int mMeasureCacheHitCount;
+
+    /**
+     * 属性变化后待提交的刷新，批量修改期间暂存
+     */
+    private static final int CHANGE_GEOMETRY = 0x01;
+    private static final int CHANGE_DRAW = 0x02;
+    private int mPendingChanges;
+    /**
+     * 仅在{@link Editor#apply()}执行期间大于0
+     */
+    private int mBatchDepth;
+    private int mRequestLayoutCount;
+    private int mSuppressedUpdateCount;
+    private int mAppliedUpdateCount;
+
     private int mGravity;
     private int mDrawableAlignStyle;
     private int mDrawableChainStyle;
+    private int mMeasurePolicy;
+    private int mBodyMaxLines;
+    private int mBriefMaxLines;
+    private int mEllipsize;
+    /**
+     * 布局或状态变化时一次性解析出的绘制位置，图标与分割线的边界同时写入，绘制时不再计算
+     */
+    private boolean mGeometryResolved;
+    private int mGeometryUpdateCount;
+    private int mBodyTextX;
+    private int mBodyTextY;
+    private int mBriefTextX;
+    private int mBriefTextY;
+    private boolean mStartDrawableShown;
+    private boolean mEndDrawableShown;
+    private boolean mDividerShown;
 
     private OivEvaluator mEvaluator = new OivEvaluator();
     private OivAnimatorElement mCurrentAnimElem = new OivAnimatorElement();
     private OivAnimatorElement mEndUpdateAnimElem = new OivAnimatorElement();
     private OivAnimatorElement mEndPercentAnimElem = new OivAnimatorElement();
+    private OivAnimatorElement mPercentAnimElem = new OivAnimatorElement();
     private OivAnimatorElement mStartUpdateAnimElem = new OivAnimatorElement();
+    private OivAnimatorElement mUpdateAnimElem = new OivAnimatorElement();
+    /**
+     * 每个控件只有一个动画，再次切换时从当前插值状态重新指向新的目标
+     */
+    private ValueAnimator mAnimator;
+    private int mAnimatorCreateCount;
     private OivAnimatorElement mStartPercentAnimElem = new OivAnimatorElement();
+    /**
+     * 滚动驱动的百分比：调用方任意频率投递，每帧只应用最新的一次
+     */
+    private static final float MIN_VISIBLE_PERCENT_DELTA = 1f / 255;
+    private boolean mPercentFramePosted;
+    private boolean mBodyPercentPending;
+    private boolean mPendingBodyEnable;
+    private float mPendingBodyPercent;
+    private float mAppliedBodyPercent = -1f;
+    private boolean mBriefPercentPending;
+    private boolean mPendingBriefEnable;
+    private float mPendingBriefPercent;
+    private float mAppliedBriefPercent = -1f;
+    private int mDroppedPercentUpdateCount;
+    private final Runnable mPercentFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPercentFramePosted = false;
+            applyPendingPercents();
+        }
+    };
 
-    private Paint mShadowPaint;
+    private OivShadowRenderer mShadowRenderer;
     private int mShadowColor;
     private int mShadowDx;
     private int mShadowDy;
     private int mShadowRadius;
     private int mShadowSide;
+    private int mShadowInsetLeft;
+    private int mShadowInsetTop;
+    private int mShadowInsetRight;
+    private int mShadowInsetBottom;
     private final int FLAG_SHADOW_SIDE_LEFT = 0x0001;
     private final int FLAG_SHADOW_SIDE_RIGHT = 0x0010;
     private final int FLAG_SHADOW_SIDE_TOP = 0x0100;
@@ -98,12 +184,13 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
 
     private int mX, mY;
     private OnClickDrawableListener mListener;
+    private OivMetrics.Listener mMetricsListener;
     private final String TAG = OperableItemView.class.getSimpleName();
 
     @Override
     public void onAnimationUpdate(ValueAnimator valueAnimator) {
-        OivAnimatorElement element = (OivAnimatorElement) valueAnimator.getAnimatedValue();
-        updateAnimation(element);
+        float fraction = (float) valueAnimator.getAnimatedValue();
+        updateAnimation(mEvaluator.evaluate(fraction, mStartUpdateAnimElem, mEndUpdateAnimElem, mUpdateAnimElem));
     }
 
     @IntDef({OIV_GRAVITY_FLAG_LEFT, OIV_GRAVITY_FLAG_TOP, OIV_GRAVITY_FLAG_RIGHT, OIV_GRAVITY_FLAG_BOTTOM,
@@ -137,170 +224,160 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
         int OIV_DRAWABLE_ALIGN_STYLE_NORMAL = 0x10;
     }
 
+    /**
+     * 测量策略：按内容、按背景固有尺寸或直接采用MeasureSpec；
+     * 默认的auto保持原有行为，背景为位图或有固有尺寸的渐变时按背景测量，否则按内容
+     */
+    @IntDef({OIV_MEASURE_POLICY_AUTO, OIV_MEASURE_POLICY_CONTENT, OIV_MEASURE_POLICY_BACKGROUND, OIV_MEASURE_POLICY_EXACT})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface MeasurePolicy {
+        int OIV_MEASURE_POLICY_AUTO = 0;
+        int OIV_MEASURE_POLICY_CONTENT = 1;
+        int OIV_MEASURE_POLICY_BACKGROUND = 2;
+        int OIV_MEASURE_POLICY_EXACT = 3;
+    }
+
+    /**
+     * 超出最大行数时最后一行的处理方式，取值与android:ellipsize一致，目前只支持末尾省略
+     */
+    @IntDef({OIV_ELLIPSIZE_NONE, OIV_ELLIPSIZE_END})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Ellipsize {
+        int OIV_ELLIPSIZE_NONE = 0;
+        int OIV_ELLIPSIZE_END = 3;
+    }
+
+    /**
+     * 在代码中创建，使用{@link OivStyle#getDefault()}，不解析任何属性
+     */
+    public OperableItemView(Context context) {
+        this(context, OivStyle.getDefault());
+    }
+
+    private OperableItemView(Context context, OivStyle style) {
+        super(context);
+        applyStyle(style);
+        initShadowRenderer();
+    }
+
+    /**
+     * 在代码中创建，直接使用已构建好的样式，不经过{@link android.content.res.TypedArray}
+     */
+    public static OperableItemView create(Context context, OivStyle style) {
+        return new OperableItemView(context, style);
+    }
+
     public OperableItemView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
-        initAttrs(context, attrs);
-        initShadowPaint();
-    }
-
-    private void initAttrs(Context context, AttributeSet attrs) {
-        TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.OperableItemView);
-        mBodyText = ta.getString(R.styleable.OperableItemView_oiv_bodyText);
-        if (TextUtils.isEmpty(mBodyText)) {
-            mBodyText = ta.getString(R.styleable.OperableItemView_oiv_bodyDefaultText);
-        }
-        mBriefText = ta.getString(R.styleable.OperableItemView_oiv_briefText);
-        if (TextUtils.isEmpty(mBriefText)) {
-            mBriefText = ta.getString(R.styleable.OperableItemView_oiv_briefDefaultText);
-        }
-        mDrawablePadding = ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_drawablePadding, 0);
-        mTextInterval = ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_textInterval, 0);
-        mBriefTextColor = ta.getColor(R.styleable.OperableItemView_oiv_briefTextColor, Color.BLACK);
-        mBodyTextColor = ta.getColor(R.styleable.OperableItemView_oiv_bodyTextColor, Color.BLACK);
-        mDividerHeight = ta.getDimension(R.styleable.OperableItemView_oiv_dividerHeight, 1f);
-        mEndDrawable = ta.getDrawable(R.styleable.OperableItemView_oiv_endDrawable);
-        mStartDrawable = ta.getDrawable(R.styleable.OperableItemView_oiv_startDrawable);
-        mDividerDrawable = ta.getDrawable(R.styleable.OperableItemView_oiv_dividerDrawable);
-        mGravity = ta.getInt(R.styleable.OperableItemView_oiv_gravity, 0);
-        mShadowColor = ta.getColor(R.styleable.OperableItemView_oiv_shadowColor, Color.BLACK);
-        mShadowRadius = ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowRadius, 0);
-        mShadowDx = ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowDx, 10);
-        mShadowDy = ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_shadowDy, 10);
-        mShadowSide = ta.getInt(R.styleable.OperableItemView_oiv_shadowSide, 0);
-        mDrawableChainStyle = ta.getInt(R.styleable.OperableItemView_oiv_drawableChainStyle, OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE);
-        mDrawableAlignStyle = ta.getInt(R.styleable.OperableItemView_oiv_drawableAlignStyle, OIV_DRAWABLE_ALIGN_STYLE_NORMAL);
-        initBriefPaint(ta.getString(R.styleable.OperableItemView_oiv_briefTextTypeface),
-                ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_briefTextSize, 28));
-        initBodyPaint(ta.getString(R.styleable.OperableItemView_oiv_bodyTextTypeface),
-                ta.getDimensionPixelOffset(R.styleable.OperableItemView_oiv_bodyTextSize, 28));
-        ta.recycle();
-    }
-
-    private int horizontalGravity() {
-        if ((mGravity & OIV_GRAVITY_FLAG_CENTER_HORIZONTAL) != 0) {
-            return OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
-        }
-        if ((mGravity & OIV_GRAVITY_FLAG_RIGHT) != 0) {
-            return OIV_GRAVITY_FLAG_RIGHT;
-        }
-        return OIV_GRAVITY_FLAG_LEFT;
-    }
-
-    private int verticalGravity() {
-        if ((mGravity & OIV_GRAVITY_FLAG_CENTER_VERTICAL) != 0) {
-            return OIV_GRAVITY_FLAG_CENTER_VERTICAL;
-        }
-        if ((mGravity & OIV_GRAVITY_FLAG_BOTTOM) != 0) {
-            return OIV_GRAVITY_FLAG_BOTTOM;
-        }
-        return OIV_GRAVITY_FLAG_TOP;
-    }
-
-    private void initBriefPaint(String typefacePath, int textSize) {
-        mBriefPaint = new TextPaint();
-        mBriefPaint.setColor(mBriefTextColor);
-        try {
-            mBriefPaint.setTypeface(Typeface.createFromAsset(getContext().getAssets(), typefacePath));
-        } catch (Exception e) {
-            Log.i(TAG, "No set special brief text typeface!");
-        }
-        mCurrentAnimElem.briefTextColor = mBriefTextColor;
-        mBriefPaint.setTextSize(textSize);
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                mBriefPaint.setTextAlign(Paint.Align.CENTER);
-                break;
-            case OIV_GRAVITY_FLAG_RIGHT:
-                mBriefPaint.setTextAlign(Paint.Align.RIGHT);
-                break;
-            case OIV_GRAVITY_FLAG_LEFT:
-            default:
-                mBriefPaint.setTextAlign(Paint.Align.LEFT);
-                break;
-        }
-        mBriefPaint.setAntiAlias(true);
+        applyStyle(OivStyle.obtain(context, attrs));
+        initShadowRenderer();
     }
 
-    private void initBodyPaint(String typefacePath, int textSize) {
-        mBodyPaint = new TextPaint();
-        mBodyPaint.setColor(mBodyTextColor);
-        try {
-            mBodyPaint.setTypeface(Typeface.createFromAsset(getContext().getAssets(), typefacePath));
-        } catch (Exception e) {
-            Log.i(TAG, "No set special body text typeface!");
-        }
-        mCurrentAnimElem.bodyTextColor = mBodyTextColor;
-        mBodyPaint.setTextSize(textSize);
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                mBodyPaint.setTextAlign(Paint.Align.CENTER);
-                break;
-            case OIV_GRAVITY_FLAG_RIGHT:
-                mBodyPaint.setTextAlign(Paint.Align.RIGHT);
-                break;
-            case OIV_GRAVITY_FLAG_LEFT:
-            default:
-                mBodyPaint.setTextAlign(Paint.Align.LEFT);
-                break;
-        }
-        mBodyPaint.setAntiAlias(true);
+    /**
+     * 从共享样式中取出属性，画笔在修改前一直与样式共用
+     */
+    private void applyStyle(OivStyle style) {
+        mStyle = style;
+        mBodyText = style.bodyText;
+        mBriefText = style.briefText;
+        mDrawablePadding = style.drawablePadding;
+        mTextInterval = style.textInterval;
+        mBriefTextColor = style.briefTextColor;
+        mBodyTextColor = style.bodyTextColor;
+        mDividerHeight = style.dividerHeight;
+        Resources res = getResources();
+        mEndDrawable = style.newEndDrawable(res);
+        mStartDrawable = style.newStartDrawable(res);
+        mDividerDrawable = style.newDividerDrawable(res);
+        mGravity = style.gravity;
+        mShadowColor = style.shadowColor;
+        mShadowRadius = style.shadowRadius;
+        mShadowDx = style.shadowDx;
+        mShadowDy = style.shadowDy;
+        mShadowSide = style.shadowSide;
+        mDrawableChainStyle = style.drawableChainStyle;
+        mDrawableAlignStyle = style.drawableAlignStyle;
+        mMeasurePolicy = style.measurePolicy;
+        mBodyMaxLines = style.bodyMaxLines;
+        mBriefMaxLines = style.briefMaxLines;
+        mEllipsize = style.ellipsize;
+        mBriefPaint = style.briefPaint;
+        mBodyPaint = style.bodyPaint;
+        mCurrentAnimElem.setBriefTextColor(mBriefTextColor);
+        mCurrentAnimElem.setBodyTextColor(mBodyTextColor);
+    }
+
+    /**
+     * 修改画笔前复制一份，避免影响共用同一样式的其它控件
+     */
+    private TextPaint mutableBodyPaint() {
+        if (mBodyPaint == mStyle.bodyPaint) mBodyPaint = new TextPaint(mBodyPaint);
+        return mBodyPaint;
+    }
+
+    private TextPaint mutableBriefPaint() {
+        if (mBriefPaint == mStyle.briefPaint) mBriefPaint = new TextPaint(mBriefPaint);
+        return mBriefPaint;
     }
 
-    private void initShadowPaint() {
+    TextPaint getBodyPaint() {
+        return mBodyPaint;
+    }
+
+    TextPaint getBriefPaint() {
+        return mBriefPaint;
+    }
+
+    /**
+     * 阴影位图按参数缓存后在硬件画布上绘制，不再需要软件绘制层
+     */
+    private void initShadowRenderer() {
         if (mShadowSide == 0) return;
-        mShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        mShadowRenderer = new OivShadowRenderer(mShadowRadius, mShadowDx, mShadowDy, mShadowColor, mShadowSide);
         setWillNotDraw(false);
+        calculateShadowInsets();
     }
 
-    private void setUpShadowPaint() {
-        if (mShadowPaint == null) return;
-        mShadowPaint.reset();
-        mShadowPaint.setAntiAlias(true);
-        mShadowPaint.setColor(Color.TRANSPARENT);
-        mShadowPaint.setShadowLayer(mShadowRadius, mShadowDx, mShadowDy, mShadowColor);
+    /**
+     * 阴影占用的边距单独记录，与用户设置的padding叠加，不覆盖padding
+     */
+    private void calculateShadowInsets() {
+        int effect = mShadowRadius + 5;
+        mShadowInsetLeft = (mShadowSide & FLAG_SHADOW_SIDE_LEFT) == FLAG_SHADOW_SIDE_LEFT ? effect : 0;
+        mShadowInsetTop = (mShadowSide & FLAG_SHADOW_SIDE_TOP) == FLAG_SHADOW_SIDE_TOP ? effect : 0;
+        mShadowInsetRight = (mShadowSide & FLAG_SHADOW_SIDE_RIGHT) == FLAG_SHADOW_SIDE_RIGHT ? effect : 0;
+        mShadowInsetBottom = (mShadowSide & FLAG_SHADOW_SIDE_BOTTOM) == FLAG_SHADOW_SIDE_BOTTOM ? effect : 0;
+        mShadowInsetBottom += mShadowDy;
+        mShadowInsetRight += mShadowDx;
     }
 
-    private void calculateShadowPadding() {
-        float effect = mShadowRadius + 5;
-        float rectLeft = 0;
-        float rectTop = 0;
-        float rectRight = this.getWidth();
-        float rectBottom = this.getHeight();
-        int paddingLeft = 0;
-        int paddingTop = 0;
-        int paddingRight = 0;
-        int paddingBottom = 0;
+    private int contentPaddingLeft() {
+        return getPaddingLeft() + mShadowInsetLeft;
+    }
 
-        if (((mShadowSide & FLAG_SHADOW_SIDE_LEFT) == FLAG_SHADOW_SIDE_LEFT)) {
-            rectLeft = effect;
-            paddingLeft = (int) effect;
-        }
-        if (((mShadowSide & FLAG_SHADOW_SIDE_TOP) == FLAG_SHADOW_SIDE_TOP)) {
-            rectTop = effect;
-            paddingTop = (int) effect;
-        }
-        if (((mShadowSide & FLAG_SHADOW_SIDE_RIGHT) == FLAG_SHADOW_SIDE_RIGHT)) {
-            rectRight = this.getWidth() - effect;
-            paddingRight = (int) effect;
-        }
-        if (((mShadowSide & FLAG_SHADOW_SIDE_BOTTOM) == FLAG_SHADOW_SIDE_BOTTOM)) {
-            rectBottom = this.getHeight() - effect;
-            paddingBottom = (int) effect;
-        }
-        if (mShadowDy != 0) {
-            rectBottom = rectBottom - mShadowDy;
-            paddingBottom = paddingBottom + (int) mShadowDy;
-        }
-        if (mShadowDx != 0) {
-            rectRight = rectRight - mShadowDx;
-            paddingRight = paddingRight + (int) mShadowDx;
-        }
-        mRectF.left = rectLeft;
-        mRectF.top = rectTop;
-        mRectF.right = rectRight;
-        mRectF.bottom = rectBottom;
-        this.setPadding(paddingLeft, paddingTop, paddingRight, paddingBottom);
+    private int contentPaddingTop() {
+        return getPaddingTop() + mShadowInsetTop;
+    }
+
+    private int contentPaddingRight() {
+        return getPaddingRight() + mShadowInsetRight;
+    }
+
+    private int contentPaddingBottom() {
+        return getPaddingBottom() + mShadowInsetBottom;
+    }
+
+    /**
+     * 阴影之内的区域，尺寸变化时更新；用户设置的padding位于该区域之内
+     */
+    private void calculateShadowRect(int width, int height) {
+        mRectF.set(mShadowInsetLeft, mShadowInsetTop, width - mShadowInsetRight, height - mShadowInsetBottom);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (mShadowRenderer != null) calculateShadowRect(w, h);
     }
 
     @Override
@@ -310,507 +387,652 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int measureWidthMode = MeasureSpec.getMode(widthMeasureSpec);
+        if (!isMetricsEnabled()) {
+            measureContent(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        long start = System.nanoTime();
+        measureContent(widthMeasureSpec, heightMeasureSpec);
+        OivMetrics.recordPhase(this, mMetricsListener, OivMetrics.PHASE_MEASURE, System.nanoTime() - start);
+    }
+
+    private void measureContent(int widthMeasureSpec, int heightMeasureSpec) {
+        if (measureFromCache(widthMeasureSpec, heightMeasureSpec)) return;
+        resolveMeasure(widthMeasureSpec, heightMeasureSpec);
+        putMeasureCache(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    private void resolveMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        mPaddingTop = contentPaddingTop();
+        mPaddingBottom = contentPaddingBottom();
         measureHeightMode = MeasureSpec.getMode(heightMeasureSpec);
 
-        if (MeasureSpec.getSize(widthMeasureSpec) > 0) {
-            initStaticLayout(MeasureSpec.getSize(widthMeasureSpec));
+        switch (resolveMeasurePolicy()) {
+            case OIV_MEASURE_POLICY_BACKGROUND:
+                Drawable background = getBackground();
+                setMeasuredDimension(resolveSize(background.getIntrinsicWidth(), widthMeasureSpec),
+                        resolveSize(background.getIntrinsicHeight(), heightMeasureSpec));
+                return;
+            case OIV_MEASURE_POLICY_EXACT:
+                setMeasuredDimension(widthSize, MeasureSpec.getSize(heightMeasureSpec));
+                return;
         }
 
-        Drawable background = getBackground();
-        if (background instanceof BitmapDrawable
-                || background instanceof GradientDrawable
-                && background.getIntrinsicWidth() > 0
-                && background.getIntrinsicHeight() > 0) {
-            setMeasuredDimension(background.getIntrinsicWidth(), background.getIntrinsicHeight());
-            return;
+        float height;
+        if (measureHeightMode == MeasureSpec.EXACTLY) {
+            height = MeasureSpec.getSize(heightMeasureSpec);
+        } else {
+            // 只有高度随内容变化时才需要在测量阶段断行，其余情况推迟到onLayout按最终宽度进行
+            initStaticLayout(widthSize);
+            height = OivLayoutEngine.contentHeight(layoutSpec(widthSize, 0));
         }
+        setMeasuredDimension(widthSize, (int) height + mPaddingTop + mPaddingBottom);
+    }
 
-        float height = 0;
-        switch (measureHeightMode) {
-            case MeasureSpec.AT_MOST:
-            case MeasureSpec.UNSPECIFIED:
-                if (mStartDrawable != null && getStartDrawableHeight() > height) {
-                    height = getStartDrawableHeight();
-                }
-                if (mEndDrawable != null && getEndDrawableHeight() > height) {
-                    height = getEndDrawableHeight();
-                }
-                float lineHeight = (TextUtils.isEmpty(mBriefText) ? 0 : getTextHeight(mBriefPaint))
-                        + mTextInterval + (TextUtils.isEmpty(mBodyText) ? 0 : getTextHeight(mBodyPaint));
-                if (lineHeight > height) {
-                    height = lineHeight;
-                }
-                float linesHeight = (mBriefStcLayout == null || TextUtils.isEmpty(mBriefText) ? 0 : mBriefStcLayout.getHeight())
-                        + (mBodyStcLayout == null || TextUtils.isEmpty(mBodyText) ? 0 : mBodyStcLayout.getHeight()) + mTextInterval;
-                if (linesHeight > height) {
-                    height = linesHeight;
-                }
-                break;
-            case MeasureSpec.EXACTLY:
-                height = MeasureSpec.getSize(heightMeasureSpec);
-                break;
+    /**
+     * 将{@link MeasurePolicy#OIV_MEASURE_POLICY_AUTO}落到具体策略；背景没有固有尺寸时退回按内容测量
+     */
+    private int resolveMeasurePolicy() {
+        Drawable background = getBackground();
+        switch (mMeasurePolicy) {
+            case OIV_MEASURE_POLICY_AUTO:
+                return background instanceof BitmapDrawable
+                        || background instanceof GradientDrawable && hasIntrinsicSize(background)
+                        ? OIV_MEASURE_POLICY_BACKGROUND : OIV_MEASURE_POLICY_CONTENT;
+            case OIV_MEASURE_POLICY_BACKGROUND:
+                return background != null && hasIntrinsicSize(background)
+                        ? OIV_MEASURE_POLICY_BACKGROUND : OIV_MEASURE_POLICY_CONTENT;
+            default:
+                return mMeasurePolicy;
         }
-
-        setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), (int) height + mPaddingTop + mPaddingBottom);
     }
 
-    @Override
-    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        super.onLayout(changed, left, top, right, bottom);
-        mCurrentAnimElem.bodyBaseLineY = bodyBaseLineY();
-        mCurrentAnimElem.briefBaseLineY = briefBaseLineY();
+    /**
+     * 与{@link #resolveMeasure(int, int)}一致：只有按内容测量且高度随内容变化时才在测量阶段断行
+     */
+    private boolean measuresTextLayout(int heightMode) {
+        return heightMode != MeasureSpec.EXACTLY && resolveMeasurePolicy() == OIV_MEASURE_POLICY_CONTENT;
     }
 
-    @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-        int paddingLeft = getPaddingLeft();
-        int paddingRight = getPaddingRight();
-        int centerY = (getBottom() - getTop()) / 2;
-        mPaddingTop = getPaddingTop();
-        mPaddingBottom = getPaddingBottom();
-
-        drawBodyText(canvas, paddingLeft, mAnimate);
-        drawBriefText(canvas, paddingLeft, mAnimate);
-
-        drawStartDrawable(canvas, centerY, paddingLeft);
-        drawEndDrawable(canvas, centerY, paddingRight);
-        drawDivider(canvas, paddingLeft, paddingRight);
+    private static boolean hasIntrinsicSize(Drawable drawable) {
+        return drawable.getIntrinsicWidth() > 0 && drawable.getIntrinsicHeight() > 0;
     }
 
-    private void initStaticLayout(int widthPx) {
-        if (widthPx <= 0) return;
-        if (mBriefStcLayout == null || mRefresh) {
-            mBriefStcLayout = new StaticLayout(mBriefText == null ? "" : mBriefText,
-                    mBriefPaint, briefTextWidth(widthPx), Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
-        }
-        if (mBodyStcLayout == null || mRefresh) {
-            mBodyStcLayout = new StaticLayout(mBodyText == null ? "" : mBodyText,
-                    mBodyPaint, bodyTextWidth(widthPx), Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+    /**
+     * 命中时按与未命中相同的条件准备文本布局，保证随后的布局与绘制使用的是同一份断行结果
+     */
+    private boolean measureFromCache(int widthMeasureSpec, int heightMeasureSpec) {
+        for (int i = 0; i < mMeasureCacheCount; i++) {
+            int offset = i * 4;
+            if (mMeasureCache[offset] != widthMeasureSpec || mMeasureCache[offset + 1] != heightMeasureSpec) continue;
+            measureHeightMode = MeasureSpec.getMode(heightMeasureSpec);
+            if (MeasureSpec.getSize(widthMeasureSpec) > 0 && measuresTextLayout(measureHeightMode)) {
+                initStaticLayout(MeasureSpec.getSize(widthMeasureSpec));
+            }
+            setMeasuredDimension(mMeasureCache[offset + 2], mMeasureCache[offset + 3]);
+            mMeasureCacheHitCount++;
+            return true;
         }
+        return false;
     }
 
-    private void drawBriefText(Canvas canvas, int paddingLeft, boolean animate) {
-        if (TextUtils.isEmpty(mBriefText)) return;
-        int baseLineX = 0;
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_LEFT:
-                baseLineX = mStartDrawable == null || !mStartDrawable.isVisible()
-                        || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? paddingLeft
-                        : paddingLeft + mDrawablePadding + getStartDrawableWidth();
-                break;
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                baseLineX = canvas.getWidth() / 2;
-                break;
-            case OIV_GRAVITY_FLAG_RIGHT:
-                baseLineX = usableBriefSpaceWidth(canvas) + mBriefStcLayout.getWidth() +
-                        (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BODY_START
-                                ? paddingLeft : paddingLeft + mDrawablePadding + getStartDrawableWidth());
-                break;
-        }
-        drawBriefText(canvas, baseLineX);
+    private void putMeasureCache(int widthMeasureSpec, int heightMeasureSpec) {
+        int offset = mMeasureCacheNext * 4;
+        mMeasureCache[offset] = widthMeasureSpec;
+        mMeasureCache[offset + 1] = heightMeasureSpec;
+        mMeasureCache[offset + 2] = getMeasuredWidth();
+        mMeasureCache[offset + 3] = getMeasuredHeight();
+        mMeasureCacheNext = (mMeasureCacheNext + 1) % MEASURE_CACHE_SIZE;
+        if (mMeasureCacheCount < MEASURE_CACHE_SIZE) mMeasureCacheCount++;
     }
 
-    private void drawBriefText(Canvas canvas, int baseLineX) {
-        canvas.save();
-        canvas.translate(baseLineX, mCurrentAnimElem.briefBaseLineY);
-        mBriefStcLayout.draw(canvas);
-        canvas.restore();
+    /**
+     * 文本、样式、内边距或背景的变化最终都会走到这里，借此清空测量缓存
+     */
+    @Override
+    public void requestLayout() {
+        mMeasureCacheCount = 0;
+        mMeasureCacheNext = 0;
+        super.requestLayout();
     }
 
-    private void drawBodyText(Canvas canvas, int paddingLeft, boolean animate) {
-        if (TextUtils.isEmpty(mBodyText)) return;
-        int baseLineX = 0;
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_LEFT:
-                baseLineX = mStartDrawable == null || !mStartDrawable.isVisible()
-                        || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? paddingLeft
-                        : paddingLeft + mDrawablePadding + getStartDrawableWidth();
-                break;
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                baseLineX = canvas.getWidth() / 2;
-                break;
-            case OIV_GRAVITY_FLAG_RIGHT:
-                baseLineX = usableBodySpaceWidth(canvas) + mBodyStcLayout.getWidth() +
-                        (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START
-                                ? paddingLeft : paddingLeft + mDrawablePadding + getStartDrawableWidth());
-                break;
+    /**
+     * 直接复用测量缓存的次数
+     */
+    public int getMeasureCacheHitCount() {
+        return mMeasureCacheHitCount;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        if (!isMetricsEnabled()) {
+            layoutContent();
+            return;
         }
-        drawBodyText(canvas, baseLineX);
+        long start = System.nanoTime();
+        layoutContent();
+        OivMetrics.recordPhase(this, mMetricsListener, OivMetrics.PHASE_LAYOUT, System.nanoTime() - start);
     }
 
-    private void drawBodyText(Canvas canvas, int baseLineX) {
-        canvas.save();
-        canvas.translate(baseLineX, mCurrentAnimElem.bodyBaseLineY);
-        mBodyStcLayout.draw(canvas);
-        canvas.restore();
+    private void layoutContent() {
+        initStaticLayout(getWidth());
+        updateLayoutResult();
+        mCurrentAnimElem.setBodyBaseLineY(mBodyTextY);
+        mCurrentAnimElem.setBriefBaseLineY(mBriefTextY);
     }
 
-    private void drawDivider(Canvas canvas, int paddingLeft, int paddingRight) {
-        if (mDividerDrawable == null) return;
-        if (mStartDrawable != null) {
-            mDividerDrawable.setBounds(paddingLeft + mDrawablePadding + getStartDrawableWidth(),
-                    (int) (getBottom() - getTop() - mDividerHeight), getWidth() - paddingRight, getBottom() - getTop());
-        } else {
-            mDividerDrawable.setBounds(paddingLeft, (int) (getBottom() - getTop() - mDividerHeight),
-                    getWidth() - paddingRight, getBottom() - getTop());
+    /**
+     * 按当前状态重新计算文本、图标与分割线的位置，并只在此处更新图标与分割线的边界
+     */
+    private void updateLayoutResult() {
+        OivLayoutResult result = OivLayoutEngine.layout(layoutSpec(getWidth(), getHeight()));
+        mBodyTextX = result.bodyTextX;
+        mBodyTextY = result.bodyTextY;
+        mBriefTextX = result.briefTextX;
+        mBriefTextY = result.briefTextY;
+        mStartDrawableShown = result.startDrawableShown;
+        if (mStartDrawableShown) {
+            mStartDrawable.setBounds(result.startDrawableLeft, result.startDrawableTop,
+                    result.startDrawableRight, result.startDrawableBottom);
+        }
+        mEndDrawableShown = result.endDrawableShown;
+        if (mEndDrawableShown) {
+            mEndDrawable.setBounds(result.endDrawableLeft, result.endDrawableTop,
+                    result.endDrawableRight, result.endDrawableBottom);
+        }
+        mDividerShown = result.dividerShown;
+        if (mDividerShown) {
+            mDividerDrawable.setBounds(result.dividerLeft, result.dividerTop, result.dividerRight, result.dividerBottom);
         }
-        mDividerDrawable.draw(canvas);
+        mGeometryResolved = true;
+        mGeometryUpdateCount++;
     }
 
-    private int startDrawableAlignStyle() {
-        if ((mDrawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START) != 0) {
-            return OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+    /**
+     * 累计解析绘制位置的次数，供测试校验绘制时不再重新计算
+     */
+    int getGeometryUpdateCount() {
+        return mGeometryUpdateCount;
+    }
+
+    private OivLayoutSpec layoutSpec(int width, int height) {
+        OivLayoutSpec.Builder builder = new OivLayoutSpec.Builder()
+                .size(width, height)
+                .padding(contentPaddingLeft(), contentPaddingTop(), contentPaddingRight(), contentPaddingBottom())
+                .gravity(mGravity)
+                .drawableChainStyle(mDrawableChainStyle)
+                .drawableAlignStyle(mDrawableAlignStyle)
+                .drawablePadding(mDrawablePadding)
+                .textInterval(mTextInterval)
+                .dividerHeight(mDividerHeight)
+                .divider(mDividerDrawable != null)
+                .briefText(TextUtils.isEmpty(mBriefText), mBriefTextEnable, getTextHeight(mBriefPaint))
+                .bodyText(TextUtils.isEmpty(mBodyText), mBodyTextEnable, getTextHeight(mBodyPaint));
+        if (mStartDrawable != null) {
+            builder.startDrawable(mStartDrawable.isVisible(),
+                    mStartDrawable.getIntrinsicWidth(), mStartDrawable.getIntrinsicHeight());
         }
-        if ((mDrawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BODY_START) != 0) {
-            return OIV_DRAWABLE_ALIGN_STYLE_BODY_START;
+        if (mEndDrawable != null) {
+            builder.endDrawable(mEndDrawable.isVisible(),
+                    mEndDrawable.getIntrinsicWidth(), mEndDrawable.getIntrinsicHeight());
+        }
+        if (mBriefStcLayout != null && mBodyStcLayout != null) {
+            builder.textLayout(mBriefStcLayout.getWidth(), mBriefStcLayout.getHeight(),
+                    mBodyStcLayout.getWidth(), mBodyStcLayout.getHeight());
         }
-        return OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+        return builder.build();
     }
 
-    private int getStartDrawableWidth() {
-        if (mBriefStcLayout == null || mBodyStcLayout == null)
-            return mStartDrawable.getIntrinsicWidth();
-        switch (startDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                return (int) ((float) mStartDrawable.getIntrinsicHeight() / (float) mStartDrawable.getIntrinsicWidth() * mBriefStcLayout.getHeight());
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                return (int) ((float) mStartDrawable.getIntrinsicHeight() / (float) mStartDrawable.getIntrinsicWidth() * mBodyStcLayout.getHeight());
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return mStartDrawable.getIntrinsicWidth();
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (!isMetricsEnabled()) {
+            drawContent(canvas);
+            return;
         }
+        long start = System.nanoTime();
+        drawContent(canvas);
+        OivMetrics.recordPhase(this, mMetricsListener, OivMetrics.PHASE_DRAW, System.nanoTime() - start);
     }
 
-    private int getStartDrawableHeight() {
-        if (mBriefStcLayout == null || mBodyStcLayout == null)
-            return mStartDrawable.getIntrinsicHeight();
-        switch (startDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                return mBriefStcLayout.getHeight();
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                return mBodyStcLayout.getHeight();
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return mStartDrawable.getIntrinsicHeight();
-        }
+    private void drawContent(Canvas canvas) {
+        mPaddingTop = contentPaddingTop();
+        mPaddingBottom = contentPaddingBottom();
+        if (!mGeometryResolved) updateLayoutResult();
+
+        if (mShadowRenderer != null) mShadowRenderer.draw(canvas, mRectF);
+        if (!TextUtils.isEmpty(mBodyText)) drawBodyText(canvas, mBodyTextX);
+        if (!TextUtils.isEmpty(mBriefText)) drawBriefText(canvas, mBriefTextX);
+
+        if (mStartDrawableShown) mStartDrawable.draw(canvas);
+        if (mEndDrawableShown) mEndDrawable.draw(canvas);
+        if (mDividerShown) mDividerDrawable.draw(canvas);
     }
 
-    private void drawStartDrawable(Canvas canvas, int centerY, int paddingLeft) {
-        if (mStartDrawable == null || !mStartDrawable.isVisible()) return;
-        switch (startDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                if (TextUtils.isEmpty(mBriefText)) return;
-                break;
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                if (TextUtils.isEmpty(mBodyText)) return;
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                break;
+    private void initStaticLayout(int widthPx) {
+        if (widthPx <= 0) return;
+        if (widthPx != mLayoutWidthPx) {
+            mLayoutWidthPx = widthPx;
+            invalidateTextLayout();
+        }
+        if (mBriefStcLayout != null && !mBriefLayoutDirty
+                && mBodyStcLayout != null && !mBodyLayoutDirty) return;
+        if (!isMetricsEnabled()) {
+            buildStaticLayout(widthPx);
+            return;
+        }
+        long start = System.nanoTime();
+        buildStaticLayout(widthPx);
+        OivMetrics.recordPhase(this, mMetricsListener, OivMetrics.PHASE_STATIC_LAYOUT, System.nanoTime() - start);
+    }
+
+    private void buildStaticLayout(int widthPx) {
+        mMaxTextWidth = OivLayoutEngine.usableMaxTextWidth(layoutSpec(widthPx, 0));
+        if (applyPrecomputedText(widthPx)) return;
+        if (mBriefStcLayout == null || mBriefLayoutDirty) {
+            mBriefStcLayout = newTextLayout(mBriefText, mBriefPaint, mDrawableChainStyle, mMaxTextWidth,
+                    mBriefMaxLines, mEllipsize == OIV_ELLIPSIZE_END);
+            mBriefLayoutDirty = false;
+            onStaticLayoutBuilt(mBriefStcLayout);
+        }
+        if (mBodyStcLayout == null || mBodyLayoutDirty) {
+            mBodyStcLayout = newTextLayout(mBodyText, mBodyPaint, mDrawableChainStyle, mMaxTextWidth,
+                    mBodyMaxLines, mEllipsize == OIV_ELLIPSIZE_END);
+            mBodyLayoutDirty = false;
+            onStaticLayoutBuilt(mBodyStcLayout);
         }
-        int left = startDrawableLeft(canvas, paddingLeft);
-        int top = startDrawableTop(centerY);
-        int right = left + getStartDrawableWidth();
-        int bottom = top + getStartDrawableHeight();
-        mStartDrawable.setBounds(left, top, right, bottom);
-        mStartDrawable.draw(canvas);
     }
 
-    private int startDrawableLeft(Canvas canvas, int paddingLeft) {
-        switch (mDrawableChainStyle) {
-            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
-                break;
-            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
-            default:
-                return paddingLeft;
-        }
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                switch (startDrawableAlignStyle()) {
-                    case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                        return canvas.getWidth() / 2 - mBriefStcLayout.getWidth() / 2 - mDrawablePadding - getStartDrawableWidth();
-                    case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                        return canvas.getWidth() / 2 - mBodyStcLayout.getWidth() / 2 - mDrawablePadding - getStartDrawableWidth();
-                    case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-                    default:
-                        break;
-                }
-                return canvas.getWidth() / 2 - Math.max(mBriefStcLayout.getWidth(), mBodyStcLayout.getWidth()) / 2 - mDrawablePadding - getStartDrawableWidth();
-            case OIV_GRAVITY_FLAG_RIGHT:
-                return paddingLeft + usableSpaceWidth(canvas, startDrawableAlignStyle());
-            case OIV_GRAVITY_FLAG_LEFT:
-            default:
-                return paddingLeft;
-        }
+    /**
+     * 预计算结果已完成且与当前文本、样式和宽度一致时直接采用，否则返回false同步断行
+     */
+    private boolean applyPrecomputedText(int widthPx) {
+        OivPrecomputedText text = mPrecomputedText;
+        if (text == null || !text.isReady()) return false;
+        if (text.widthPx != widthPx
+                || text.params.maxTextWidth(widthPx) != mMaxTextWidth
+                || !TextUtils.equals(text.bodyText, mBodyText)
+                || !TextUtils.equals(text.briefText, mBriefText)
+                || !text.params.matches(mBodyPaint, mBriefPaint, mDrawableChainStyle,
+                mBodyMaxLines, mBriefMaxLines, mEllipsize)) return false;
+        mBriefStcLayout = text.getBriefLayout();
+        mBodyStcLayout = text.getBodyLayout();
+        mBriefLayoutDirty = false;
+        mBodyLayoutDirty = false;
+        mPrecomputedTextHitCount++;
+        return true;
     }
 
-    private int startDrawableTop(int centerY) {
-        switch (startDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                return briefBaseLineY();
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                return bodyBaseLineY();
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return centerY - getStartDrawableHeight() / 2;
-        }
+    /**
+     * 在当前控件的文本样式下预计算断行所需的参数，可在多个{@link OivPrecomputedText}间共用
+     */
+    public OivPrecomputedText.Params getPrecomputedTextParams() {
+        return new OivPrecomputedText.Params(mBodyPaint, mBriefPaint, mDrawableChainStyle,
+                OivLayoutEngine.occupiedWidthExceptText(layoutSpec(0, 0)), mBodyMaxLines, mBriefMaxLines, mEllipsize);
     }
 
-    private int endDrawableAlignStyle() {
-        if ((mDrawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END) != 0) {
-            return OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END;
-        }
-        if ((mDrawableAlignStyle & OIV_DRAWABLE_ALIGN_STYLE_BODY_END) != 0) {
-            return OIV_DRAWABLE_ALIGN_STYLE_BODY_END;
-        }
-        return OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+    /**
+     * 适配器绑定时设置预计算的文本，同时更新正文与简述（空文本同样生效，复用的行不会残留上一次的简述）；
+     * 测量时若其尚未完成或与当前状态不符则同步断行
+     */
+    public void setPrecomputedText(OivPrecomputedText text) {
+        mPrecomputedText = text;
+        if (text == null) return;
+        boolean unchanged = TextUtils.equals(text.bodyText, mBodyText) && TextUtils.equals(text.briefText, mBriefText);
+        mBodyText = text.bodyText;
+        mBriefText = text.briefText;
+        mBodyLayoutDirty = true;
+        mBriefLayoutDirty = true;
+        if (skipUpdate(unchanged)) return;
+        mAnimate = false;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
     }
 
-    private int getEndDrawableWidth() {
-        if (mBriefStcLayout == null || mBodyStcLayout == null)
-            return mEndDrawable.getIntrinsicWidth();
-        switch (endDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                return (int) ((float) mEndDrawable.getIntrinsicHeight() / (float) mEndDrawable.getIntrinsicWidth() * mBriefStcLayout.getHeight());
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                return (int) ((float) mEndDrawable.getIntrinsicHeight() / (float) mEndDrawable.getIntrinsicWidth() * mBodyStcLayout.getHeight());
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return mEndDrawable.getIntrinsicWidth();
-        }
+    /**
+     * 测量时直接采用预计算结果的次数
+     */
+    public int getPrecomputedTextHitCount() {
+        return mPrecomputedTextHitCount;
     }
 
-    private int getEndDrawableHeight() {
-        if (mBriefStcLayout == null || mBodyStcLayout == null)
-            return mEndDrawable.getIntrinsicHeight();
-        switch (endDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                return mBriefStcLayout.getHeight();
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                return mBodyStcLayout.getHeight();
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return mEndDrawable.getIntrinsicHeight();
+    /**
+     * 单行、从左到右且放得下的文本直接使用{@link BoringLayout}，
+     * 一次测量的结果同时用作断行宽度、高度与绘制；其余文本仍走{@link StaticLayout}。
+     * 两种布局在共享池开启时都由{@link OivLayoutPool}提供。
+     * 设置了最大行数时先截取可见部分再断行。不访问控件状态，可在工作线程中调用
+     */
+    static Layout newTextLayout(String text, TextPaint paint, int drawableChainStyle, int maxTextWidth,
+                                int maxLines, boolean ellipsize) {
+        text = OivTextTruncator.truncate(text, paint, maxTextWidth, maxLines, ellipsize);
+        if (!TextUtils.isEmpty(text)) {
+            BoringLayout.Metrics metrics = BoringLayout.isBoring(text, paint);
+            if (metrics != null && metrics.width <= maxTextWidth) {
+                int width = drawableChainStyle == OIV_DRAWABLE_CHAIN_STYLE_PACKED ? metrics.width : maxTextWidth;
+                BoringLayout layout = OivLayoutPool.obtainBoring(text, paint, width,
+                        Layout.Alignment.ALIGN_NORMAL, metrics);
+                if (layout != null) return layout;
+                return BoringLayout.make(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, metrics, false);
+            }
         }
+        return newStaticLayout(text, paint, textLayoutWidth(text, paint, drawableChainStyle, maxTextWidth));
     }
 
-    private int endDrawableTop(int centerY) {
-        switch (endDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                return briefBaseLineY();
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                return bodyBaseLineY();
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                return centerY - getEndDrawableHeight() / 2;
-        }
+    static StaticLayout newStaticLayout(String text, TextPaint paint, int width) {
+        if (text == null) text = "";
+        StaticLayout layout = OivLayoutPool.obtain(text, paint, width, Layout.Alignment.ALIGN_NORMAL);
+        if (layout != null) return layout;
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
     }
 
-    private void drawEndDrawable(Canvas canvas, int centerY, int paddingRight) {
-        if (mEndDrawable == null || !mEndDrawable.isVisible()) return;
-        switch (endDrawableAlignStyle()) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                if (TextUtils.isEmpty(mBriefText)) return;
-                break;
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                if (TextUtils.isEmpty(mBodyText)) return;
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-                break;
-        }
-        int right = endDrawableRight(canvas, paddingRight);
-        int left = right - getEndDrawableWidth();
-        int top = endDrawableTop(centerY);
-        int bottom = top + getEndDrawableHeight();
-        mEndDrawable.setBounds(left, top, right, bottom);
-        mEndDrawable.draw(canvas);
+    /**
+     * 图标可见性或可用宽度变化时两段文本都需重新断行
+     */
+    private void invalidateTextLayout() {
+        mBodyLayoutDirty = true;
+        mBriefLayoutDirty = true;
     }
 
-    private int endDrawableRight(Canvas canvas, int paddingRight) {
-        switch (mDrawableChainStyle) {
-            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
-                break;
-            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
-            default:
-                return getWidth() - paddingRight;
-        }
-        switch (horizontalGravity()) {
-            case OIV_GRAVITY_FLAG_CENTER_HORIZONTAL:
-                switch (endDrawableAlignStyle()) {
-                    case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                        return canvas.getWidth() / 2 + mBriefStcLayout.getWidth() / 2 + mDrawablePadding + getEndDrawableWidth();
-                    case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                        return canvas.getWidth() / 2 + mBodyStcLayout.getWidth() / 2 + mDrawablePadding + getEndDrawableWidth();
-                    case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-                    default:
-                        break;
-                }
-                return canvas.getWidth() / 2 + Math.max(mBriefStcLayout.getWidth(), mBodyStcLayout.getWidth()) / 2 + mDrawablePadding + getEndDrawableWidth();
-            case OIV_GRAVITY_FLAG_LEFT:
-                return getWidth() - paddingRight - usableSpaceWidth(canvas, endDrawableAlignStyle());
-            case OIV_GRAVITY_FLAG_RIGHT:
-            default:
-                return getWidth() - paddingRight;
+    private void onStaticLayoutBuilt(Layout layout) {
+        mStaticLayoutBuildCount++;
+        if (layout instanceof BoringLayout) mBoringLayoutCount++;
+        if (isMetricsEnabled()) {
+            OivMetrics.recordEvent(this, mMetricsListener, OivMetrics.EVENT_STATIC_LAYOUT_BUILD);
         }
     }
 
-    private float getTextHeight(Paint paint) {
-        return paint.descent() - paint.ascent();
+    /**
+     * 累计重建{@link StaticLayout}的次数，供测试校验缓存是否生效
+     */
+    int getStaticLayoutBuildCount() {
+        return mStaticLayoutBuildCount;
     }
 
-    private int briefTextWidth(int widthPx) {
-        if (TextUtils.isEmpty(mBriefText)) return 0;
-        switch (mDrawableChainStyle) {
-            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
-                int width = (int) mBriefPaint.measureText(mBriefText);
-                return width > usableMaxTextWidth(widthPx) ? usableMaxTextWidth(widthPx) : width;
-            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
-            default:
-                return usableMaxTextWidth(widthPx);
-        }
+    /**
+     * 其中走单行快速路径的次数
+     */
+    int getBoringLayoutCount() {
+        return mBoringLayoutCount;
     }
 
-    private int bodyTextWidth(int widthPx) {
-        if (TextUtils.isEmpty(mBodyText)) return 0;
-        switch (mDrawableChainStyle) {
-            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
-                int width = (int) mBodyPaint.measureText(mBodyText);
-                return width > usableMaxTextWidth(widthPx) ? usableMaxTextWidth(widthPx) : width;
-            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
-            default:
-                return usableMaxTextWidth(widthPx);
-        }
+    private void drawBriefText(Canvas canvas, int baseLineX) {
+        canvas.save();
+        canvas.translate(baseLineX, mCurrentAnimElem.briefBaseLineY);
+        drawTextLayout(canvas, mBriefStcLayout, mCurrentAnimElem.briefTextColor);
+        canvas.restore();
     }
 
-    private int usableBriefSpaceWidth(Canvas canvas) {
-        return canvas.getWidth() - occupiedWidthExceptText() - mBriefStcLayout.getWidth()
-                + (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() != OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? 0 : mDrawablePadding + getStartDrawableWidth())
-                + (mEndDrawable == null || !mEndDrawable.isVisible() || endDrawableAlignStyle() != OIV_DRAWABLE_ALIGN_STYLE_BODY_END ? 0 : mDrawablePadding + getEndDrawableWidth());
+    private void drawBodyText(Canvas canvas, int baseLineX) {
+        canvas.save();
+        canvas.translate(baseLineX, mCurrentAnimElem.bodyBaseLineY);
+        drawTextLayout(canvas, mBodyStcLayout, mCurrentAnimElem.bodyTextColor);
+        canvas.restore();
     }
 
-    private int usableBodySpaceWidth(Canvas canvas) {
-        return canvas.getWidth() - occupiedWidthExceptText() - mBodyStcLayout.getWidth()
-                + (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() != OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? 0 : mDrawablePadding + getStartDrawableWidth())
-                + (mEndDrawable == null || !mEndDrawable.isVisible() || endDrawableAlignStyle() != OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END ? 0 : mDrawablePadding + getEndDrawableWidth());
+    /**
+     * 颜色只在绘制时写入布局所用画笔，颜色与透明度变化因此不会触发测量或重新断行；
+     * 共享池中的布局使用池内画笔，同样在此同步
+     */
+    private void drawTextLayout(Canvas canvas, Layout layout, int color) {
+        layout.getPaint().setColor(color);
+        layout.draw(canvas);
     }
 
-    private int usableSpaceWidth(Canvas canvas, int alignStyle) {
-        switch (alignStyle) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                return canvas.getWidth() - occupiedWidthExceptText(alignStyle) - mBriefStcLayout.getWidth();
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                return canvas.getWidth() - occupiedWidthExceptText(alignStyle) - mBodyStcLayout.getWidth();
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-        }
-        return canvas.getWidth() - occupiedWidthExceptText()
-                - Math.max(mBriefStcLayout.getWidth(), mBodyStcLayout.getWidth());
-    }
-
-    private int occupiedWidthExceptText() {
-        return getPaddingLeft() + getPaddingRight()
-                + (mStartDrawable == null || !mStartDrawable.isVisible() ? 0 : mDrawablePadding + getStartDrawableWidth())
-                + (mEndDrawable == null || !mEndDrawable.isVisible() ? 0 : mDrawablePadding + getEndDrawableWidth());
-    }
-
-    private int occupiedWidthExceptText(int alignStyle) {
-        switch (alignStyle) {
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START:
-                return getPaddingLeft() + getPaddingRight()
-                        + (mStartDrawable == null || !mStartDrawable.isVisible() ? 0 : mDrawablePadding + getStartDrawableWidth())
-                        + (mEndDrawable == null || !mEndDrawable.isVisible() || endDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BODY_END ? 0 : mDrawablePadding + getEndDrawableWidth());
-            case OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END:
-                return getPaddingLeft() + getPaddingRight()
-                        + (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BODY_START ? 0 : mDrawablePadding + getStartDrawableWidth())
-                        + (mEndDrawable == null || !mEndDrawable.isVisible() ? 0 : mDrawablePadding + getEndDrawableWidth());
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_START:
-                return getPaddingLeft() + getPaddingRight()
-                        + (mStartDrawable == null || !mStartDrawable.isVisible() ? 0 : mDrawablePadding + getStartDrawableWidth())
-                        + (mEndDrawable == null || !mEndDrawable.isVisible() || endDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END ? 0 : mDrawablePadding + getEndDrawableWidth());
-            case OIV_DRAWABLE_ALIGN_STYLE_BODY_END:
-                return getPaddingLeft() + getPaddingRight()
-                        + (mStartDrawable == null || !mStartDrawable.isVisible() || startDrawableAlignStyle() == OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START ? 0 : mDrawablePadding + getStartDrawableWidth())
-                        + (mEndDrawable == null || !mEndDrawable.isVisible() ? 0 : mDrawablePadding + getEndDrawableWidth());
-            case OIV_DRAWABLE_ALIGN_STYLE_NORMAL:
-            default:
-        }
-        return getPaddingLeft() + getPaddingRight()
-                + (mStartDrawable == null || !mStartDrawable.isVisible() ? 0 : mDrawablePadding + getStartDrawableWidth())
-                + (mEndDrawable == null || !mEndDrawable.isVisible() ? 0 : mDrawablePadding + getEndDrawableWidth());
-    }
-
-    private int usableMaxTextWidth(int widthPx) {
-        if (widthPx <= 0) return 0;
-        if (!mRefresh && mMaxTextWidth > 0) return mMaxTextWidth;
-        mMaxTextWidth = widthPx - occupiedWidthExceptText();
-        return mMaxTextWidth;
-    }
-
-    private int briefBaseLineY() {
-        if (mBriefStcLayout == null || mBodyStcLayout == null) return 0;
-        switch (verticalGravity()) {
-            case OIV_GRAVITY_FLAG_TOP:
-                return getPaddingTop();
-            case OIV_GRAVITY_FLAG_BOTTOM:
-                return getHeight() - getPaddingBottom()
-                        - mBodyStcLayout.getHeight()
-                        - mTextInterval
-                        - mBriefStcLayout.getHeight();
-            case OIV_GRAVITY_FLAG_CENTER_VERTICAL:
-            default:
-                if (TextUtils.isEmpty(mBodyText) || !mBodyTextEnable) {
-                    return getHeight() / 2 - mBriefStcLayout.getHeight() / 2;
-                }
-                return (getHeight() - mTextInterval
-                        - mBriefStcLayout.getHeight()
-                        - mBodyStcLayout.getHeight()) / 2;
-        }
+    private float getTextHeight(Paint paint) {
+        return paint.descent() - paint.ascent();
     }
 
-    private int bodyBaseLineY() {
-        if (mBodyStcLayout == null || mBriefStcLayout == null) return 0;
-        switch (verticalGravity()) {
-            case OIV_GRAVITY_FLAG_TOP:
-                return getPaddingTop() + mBriefStcLayout.getHeight() + mTextInterval;
-            case OIV_GRAVITY_FLAG_BOTTOM:
-                return getHeight() - getPaddingBottom() - mBodyStcLayout.getHeight();
-            case OIV_GRAVITY_FLAG_CENTER_VERTICAL:
+    /**
+     * 文本断行宽度，不访问控件状态，可在工作线程中调用
+     */
+    static int textLayoutWidth(String text, TextPaint paint, int drawableChainStyle, int maxTextWidth) {
+        if (TextUtils.isEmpty(text)) return 0;
+        switch (drawableChainStyle) {
+            case OIV_DRAWABLE_CHAIN_STYLE_PACKED:
+                int width = (int) paint.measureText(text);
+                return width > maxTextWidth ? maxTextWidth : width;
+            case OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE:
             default:
-                if (TextUtils.isEmpty(mBriefText) || !mBriefTextEnable) {
-                    return getHeight() / 2 - mBodyStcLayout.getHeight() / 2;
-                }
-                return getHeight()
-                        - (getHeight() - mTextInterval
-                        - mBriefStcLayout.getHeight()
-                        - mBodyStcLayout.getHeight()) / 2
-                        - mBodyStcLayout.getHeight();
+                return maxTextWidth;
         }
     }
 
     public void setDrawableVisible(boolean visible) {
+        boolean changed = false;
         if (mStartDrawable != null) {
             mAnimate = false;
+            changed = mStartDrawable.isVisible() != visible;
             mStartDrawable.setVisible(visible, false);
         }
         if (mEndDrawable != null) {
             mAnimate = false;
+            changed |= mEndDrawable.isVisible() != visible;
             mEndDrawable.setVisible(visible, false);
         }
+        if (skipUpdate(!changed)) return;
+        onDrawableVisibleChanged();
     }
 
     public void setStartDrawableVisible(boolean visible) {
         if (mStartDrawable == null) return;
         mAnimate = false;
+        if (skipUpdate(mStartDrawable.isVisible() == visible)) return;
         mStartDrawable.setVisible(visible, false);
+        onDrawableVisibleChanged();
     }
 
     public void setEndDrawableVisible(boolean visible) {
         if (mEndDrawable == null) return;
         mAnimate = false;
+        if (skipUpdate(mEndDrawable.isVisible() == visible)) return;
         mEndDrawable.setVisible(visible, false);
+        onDrawableVisibleChanged();
+    }
+
+    private void onDrawableVisibleChanged() {
+        invalidateTextLayout();
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
+    }
+
+    /**
+     * 批量修改属性，{@link Editor#apply()}时统一只请求一次布局与重绘
+     * <pre>
+     * view.edit()
+     *         .setBodyText(body)
+     *         .setBriefText(brief)
+     *         .setBriefTextColor(color)
+     *         .apply();
+     * </pre>
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    private void commitChanges(int changes) {
+        mPendingChanges |= changes;
+        if (mBatchDepth > 0) return;
+        changes = mPendingChanges;
+        mPendingChanges = 0;
+        if ((changes & CHANGE_GEOMETRY) != 0) {
+            mRequestLayoutCount++;
+            requestLayout();
+        }
+        if ((changes & CHANGE_DRAW) != 0) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 新值与当前值相同时跳过本次修改，并分别统计跳过与生效的次数
+     *
+     * @return true表示应跳过
+     */
+    private boolean skipUpdate(boolean unchanged) {
+        if (unchanged) {
+            mSuppressedUpdateCount++;
+        } else {
+            mAppliedUpdateCount++;
+        }
+        return unchanged;
+    }
+
+    /**
+     * 因新值与当前值相同而被跳过的属性修改次数
+     */
+    public int getSuppressedUpdateCount() {
+        return mSuppressedUpdateCount;
+    }
+
+    /**
+     * 实际生效的属性修改次数
+     */
+    public int getAppliedUpdateCount() {
+        return mAppliedUpdateCount;
+    }
+
+    /**
+     * 由本控件属性变化发起的{@link #requestLayout()}次数，供测试校验批量修改
+     */
+    int getRequestLayoutCount() {
+        return mRequestLayoutCount;
+    }
+
+    /**
+     * 只记录待修改的值，{@link #apply()}时才写入控件，未提交的Editor不会影响控件
+     */
+    public final class Editor {
+        private static final int EDIT_BODY_TEXT = 0x001;
+        private static final int EDIT_BODY_TEXT_COLOR = 0x002;
+        private static final int EDIT_BODY_TEXT_SIZE = 0x004;
+        private static final int EDIT_BODY_MAX_LINES = 0x008;
+        private static final int EDIT_BRIEF_TEXT = 0x010;
+        private static final int EDIT_BRIEF_TEXT_COLOR = 0x020;
+        private static final int EDIT_BRIEF_TEXT_SIZE = 0x040;
+        private static final int EDIT_BRIEF_MAX_LINES = 0x080;
+        private static final int EDIT_ELLIPSIZE = 0x100;
+        private static final int EDIT_START_DRAWABLE_VISIBLE = 0x200;
+        private static final int EDIT_END_DRAWABLE_VISIBLE = 0x400;
+
+        private int mEdits;
+        private boolean mApplied;
+        private String mEditBodyText;
+        private int mEditBodyTextColor;
+        private int mEditBodyTextSize;
+        private int mEditBodyMaxLines;
+        private String mEditBriefText;
+        private int mEditBriefTextColor;
+        private int mEditBriefTextSize;
+        private int mEditBriefMaxLines;
+        private int mEditEllipsize;
+        private boolean mEditStartDrawableVisible;
+        private boolean mEditEndDrawableVisible;
+
+        private Editor() {
+        }
+
+        private boolean has(int edit) {
+            return (mEdits & edit) != 0;
+        }
+
+        public Editor setBodyText(String bodyText) {
+            mEditBodyText = bodyText;
+            mEdits |= EDIT_BODY_TEXT;
+            return this;
+        }
+
+        public Editor setBodyTextColor(int bodyTextColor) {
+            mEditBodyTextColor = bodyTextColor;
+            mEdits |= EDIT_BODY_TEXT_COLOR;
+            return this;
+        }
+
+        public Editor setBodyTextSize(@DimenRes int bodyTextSize) {
+            mEditBodyTextSize = bodyTextSize;
+            mEdits |= EDIT_BODY_TEXT_SIZE;
+            return this;
+        }
+
+        public Editor setBodyMaxLines(int maxLines) {
+            mEditBodyMaxLines = maxLines;
+            mEdits |= EDIT_BODY_MAX_LINES;
+            return this;
+        }
+
+        public Editor setBriefMaxLines(int maxLines) {
+            mEditBriefMaxLines = maxLines;
+            mEdits |= EDIT_BRIEF_MAX_LINES;
+            return this;
+        }
+
+        public Editor setEllipsize(@Ellipsize int ellipsize) {
+            mEditEllipsize = ellipsize;
+            mEdits |= EDIT_ELLIPSIZE;
+            return this;
+        }
+
+        public Editor setBriefText(String briefText) {
+            mEditBriefText = briefText;
+            mEdits |= EDIT_BRIEF_TEXT;
+            return this;
+        }
+
+        public Editor setBriefTextColor(int briefTextColor) {
+            mEditBriefTextColor = briefTextColor;
+            mEdits |= EDIT_BRIEF_TEXT_COLOR;
+            return this;
+        }
+
+        public Editor setBriefTextSize(@DimenRes int briefTextSize) {
+            mEditBriefTextSize = briefTextSize;
+            mEdits |= EDIT_BRIEF_TEXT_SIZE;
+            return this;
+        }
+
+        public Editor setDrawableVisible(boolean visible) {
+            return setStartDrawableVisible(visible).setEndDrawableVisible(visible);
+        }
+
+        public Editor setStartDrawableVisible(boolean visible) {
+            mEditStartDrawableVisible = visible;
+            mEdits |= EDIT_START_DRAWABLE_VISIBLE;
+            return this;
+        }
+
+        public Editor setEndDrawableVisible(boolean visible) {
+            mEditEndDrawableVisible = visible;
+            mEdits |= EDIT_END_DRAWABLE_VISIBLE;
+            return this;
+        }
+
+        /**
+         * 一次写入记录的所有修改，最多只请求一次布局与重绘；重复调用无效
+         */
+        public void apply() {
+            if (mApplied) return;
+            mApplied = true;
+            mBatchDepth++;
+            try {
+                if (has(EDIT_BODY_TEXT)) OperableItemView.this.setBodyText(mEditBodyText);
+                if (has(EDIT_BODY_TEXT_COLOR)) OperableItemView.this.setBodyTextColor(mEditBodyTextColor);
+                if (has(EDIT_BODY_TEXT_SIZE)) OperableItemView.this.setBodyTextSize(mEditBodyTextSize);
+                if (has(EDIT_BODY_MAX_LINES)) OperableItemView.this.setBodyMaxLines(mEditBodyMaxLines);
+                if (has(EDIT_BRIEF_TEXT)) OperableItemView.this.setBriefText(mEditBriefText);
+                if (has(EDIT_BRIEF_TEXT_COLOR)) OperableItemView.this.setBriefTextColor(mEditBriefTextColor);
+                if (has(EDIT_BRIEF_TEXT_SIZE)) OperableItemView.this.setBriefTextSize(mEditBriefTextSize);
+                if (has(EDIT_BRIEF_MAX_LINES)) OperableItemView.this.setBriefMaxLines(mEditBriefMaxLines);
+                if (has(EDIT_ELLIPSIZE)) OperableItemView.this.setEllipsize(mEditEllipsize);
+                if (has(EDIT_START_DRAWABLE_VISIBLE)) {
+                    OperableItemView.this.setStartDrawableVisible(mEditStartDrawableVisible);
+                }
+                if (has(EDIT_END_DRAWABLE_VISIBLE)) {
+                    OperableItemView.this.setEndDrawableVisible(mEditEndDrawableVisible);
+                }
+            } finally {
+                mBatchDepth--;
+            }
+            commitChanges(0);
+        }
     }
 
     public boolean isStartDrawableVisible() {
@@ -823,62 +1045,93 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
 
     public void setBodyText(String bodyText) {
         if (TextUtils.isEmpty(bodyText)) return;
+        if (skipUpdate(bodyText.equals(mBodyText))) return;
         mBodyText = bodyText;
         mAnimate = false;
-        mRefresh = true;
-        requestLayout();
-        invalidate();
+        mBodyLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
     }
 
     public void setBodyTextColor(int bodyTextColor) {
+        if (skipUpdate(mBodyTextColor == bodyTextColor && mCurrentAnimElem.bodyTextColor == bodyTextColor)) return;
         mBodyTextColor = bodyTextColor;
-        mBodyPaint.setColor(bodyTextColor);
-        mCurrentAnimElem.bodyTextColor = bodyTextColor;
+        mCurrentAnimElem.setBodyTextColor(bodyTextColor);
         mAnimate = false;
-        invalidate();
+        commitChanges(CHANGE_DRAW);
     }
 
     public void setBodyTextSize(@DimenRes int bodyTextSize) {
-        mBodyPaint.setTextSize(bodyTextSize);
+        if (skipUpdate(mBodyPaint.getTextSize() == bodyTextSize)) return;
+        mutableBodyPaint().setTextSize(bodyTextSize);
         mAnimate = false;
-        mRefresh = true;
-        requestLayout();
-        invalidate();
+        mBodyLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
     }
 
     public void setBriefText(String briefText) {
         if (TextUtils.isEmpty(briefText)) return;
+        if (skipUpdate(briefText.equals(mBriefText))) return;
         mBriefText = briefText;
         mAnimate = false;
-        mRefresh = true;
-        requestLayout();
-        invalidate();
+        mBriefLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
     }
 
     public void setBriefTextColor(int briefTextColor) {
+        if (skipUpdate(mBriefTextColor == briefTextColor && mCurrentAnimElem.briefTextColor == briefTextColor)) return;
         mBriefTextColor = briefTextColor;
-        mBriefPaint.setColor(briefTextColor);
-        mCurrentAnimElem.briefTextColor = briefTextColor;
+        mCurrentAnimElem.setBriefTextColor(briefTextColor);
         mAnimate = false;
-        invalidate();
+        commitChanges(CHANGE_DRAW);
     }
 
     public void setBriefTextSize(@DimenRes int briefTextSize) {
-        mBriefPaint.setTextSize(briefTextSize);
+        if (skipUpdate(mBriefPaint.getTextSize() == briefTextSize)) return;
+        mutableBriefPaint().setTextSize(briefTextSize);
+        mAnimate = false;
+        mBriefLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
+    }
+
+    /**
+     * @param maxLines 小于等于0表示不限行数
+     */
+    public void setBodyMaxLines(int maxLines) {
+        if (skipUpdate(mBodyMaxLines == maxLines)) return;
+        mBodyMaxLines = maxLines;
         mAnimate = false;
-        mRefresh = true;
-        requestLayout();
-        invalidate();
+        mBodyLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
+    }
+
+    /**
+     * @param maxLines 小于等于0表示不限行数
+     */
+    public void setBriefMaxLines(int maxLines) {
+        if (skipUpdate(mBriefMaxLines == maxLines)) return;
+        mBriefMaxLines = maxLines;
+        mAnimate = false;
+        mBriefLayoutDirty = true;
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
+    }
+
+    public void setEllipsize(@Ellipsize int ellipsize) {
+        if (skipUpdate(mEllipsize == ellipsize)) return;
+        mEllipsize = ellipsize;
+        mAnimate = false;
+        invalidateTextLayout();
+        commitChanges(CHANGE_GEOMETRY | CHANGE_DRAW);
     }
 
     public void enableBriefText(boolean enable, boolean animate) {
         if (mBriefTextEnable == enable) return;
         mBriefTextEnable = enable;
+        mAppliedBriefPercent = -1f;
         mAnimate = animate;
         if (animate) {
             startAnimation();
         } else {
-            invalidate();
+            finishAnimation();
         }
     }
 
@@ -888,21 +1141,38 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
     public void enableBriefText(boolean enable, float percent) {
         if (percent < 0) percent = 0f;
         if (percent > 1) percent = 1f;
+        cancelAnimation();
         boolean reset = mBriefTextEnable != enable;
         mBriefTextEnable = enable;
         mAnimate = true;
+        mAppliedBriefPercent = percent;
         if (reset) readyAnimation(mStartPercentAnimElem, mEndPercentAnimElem);
-        updateAnimation(mEvaluator.evaluate(percent, mStartPercentAnimElem, mEndPercentAnimElem));
+        updateAnimation(mEvaluator.evaluate(percent, mStartPercentAnimElem, mEndPercentAnimElem, mPercentAnimElem));
+    }
+
+    /**
+     * 与{@link #enableBriefText(boolean, float)}效果相同，但只记录最新的百分比，
+     * 在下一帧统一应用，适合滚动回调等一帧内可能多次触发的场景
+     *
+     * @param percent [0,1]
+     */
+    public void postBriefTextPercent(boolean enable, float percent) {
+        if (mBriefPercentPending) mDroppedPercentUpdateCount++;
+        mBriefPercentPending = true;
+        mPendingBriefEnable = enable;
+        mPendingBriefPercent = percent;
+        schedulePercentFrame();
     }
 
     public void enableBodyText(boolean enable, boolean animate) {
         if (mBodyTextEnable == enable) return;
         mBodyTextEnable = enable;
+        mAppliedBodyPercent = -1f;
         mAnimate = animate;
         if (animate) {
             startAnimation();
         } else {
-            invalidate();
+            finishAnimation();
         }
     }
 
@@ -912,11 +1182,78 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
     public void enableBodyText(boolean enable, float percent) {
         if (percent < 0) percent = 0f;
         if (percent > 1) percent = 1f;
+        cancelAnimation();
         boolean reset = mBodyTextEnable != enable;
         mBodyTextEnable = enable;
         mAnimate = true;
+        mAppliedBodyPercent = percent;
         if (reset) readyAnimation(mStartPercentAnimElem, mEndPercentAnimElem);
-        updateAnimation(mEvaluator.evaluate(percent, mStartPercentAnimElem, mEndPercentAnimElem));
+        updateAnimation(mEvaluator.evaluate(percent, mStartPercentAnimElem, mEndPercentAnimElem, mPercentAnimElem));
+    }
+
+    /**
+     * 与{@link #enableBodyText(boolean, float)}效果相同，但只记录最新的百分比，
+     * 在下一帧统一应用，适合{@code AppBarLayout}滚动回调等一帧内可能多次触发的场景
+     *
+     * @param percent [0,1]
+     */
+    public void postBodyTextPercent(boolean enable, float percent) {
+        if (mBodyPercentPending) mDroppedPercentUpdateCount++;
+        mBodyPercentPending = true;
+        mPendingBodyEnable = enable;
+        mPendingBodyPercent = percent;
+        schedulePercentFrame();
+    }
+
+    /**
+     * API 16及以上通过{@link #postOnAnimation(Runnable)}挂到Choreographer的下一次vsync，
+     * 更低版本退化为普通的{@link #post(Runnable)}
+     */
+    private void schedulePercentFrame() {
+        if (mPercentFramePosted) return;
+        mPercentFramePosted = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postOnAnimation(mPercentFrameRunnable);
+        } else {
+            post(mPercentFrameRunnable);
+        }
+    }
+
+    private void applyPendingPercents() {
+        if (mBodyPercentPending) {
+            mBodyPercentPending = false;
+            if (isVisiblePercentChange(mBodyTextEnable, mAppliedBodyPercent, mPendingBodyEnable, mPendingBodyPercent)) {
+                enableBodyText(mPendingBodyEnable, mPendingBodyPercent);
+            } else {
+                mDroppedPercentUpdateCount++;
+            }
+        }
+        if (mBriefPercentPending) {
+            mBriefPercentPending = false;
+            if (isVisiblePercentChange(mBriefTextEnable, mAppliedBriefPercent, mPendingBriefEnable, mPendingBriefPercent)) {
+                enableBriefText(mPendingBriefEnable, mPendingBriefPercent);
+            } else {
+                mDroppedPercentUpdateCount++;
+            }
+        }
+    }
+
+    /**
+     * 颜色分量只有256级，小于一级的变化画出来没有区别；端点值总是应用，保证停在准确的终态
+     */
+    private static boolean isVisiblePercentChange(boolean enable, float applied, boolean newEnable, float percent) {
+        if (percent < 0) percent = 0f;
+        if (percent > 1) percent = 1f;
+        if (enable != newEnable || applied < 0) return true;
+        if (percent == 0f || percent == 1f) return percent != applied;
+        return Math.abs(percent - applied) >= MIN_VISIBLE_PERCENT_DELTA;
+    }
+
+    /**
+     * 被合并或因变化不可见而跳过的百分比投递次数
+     */
+    public int getDroppedPercentUpdateCount() {
+        return mDroppedPercentUpdateCount;
     }
 
     private int convertToTrans(int colorValue) {
@@ -929,40 +1266,96 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
     private void readyAnimation(OivAnimatorElement startElem, OivAnimatorElement endElem) {
         endElem.reset();
         startElem.reset();
-        startElem.bodyTextColor = mCurrentAnimElem.bodyTextColor;
-        startElem.bodyBaseLineY = mCurrentAnimElem.bodyBaseLineY;
-        startElem.briefTextColor = mCurrentAnimElem.briefTextColor;
-        startElem.briefBaseLineY = mCurrentAnimElem.briefBaseLineY;
-        endElem.bodyTextColor = mBodyTextEnable ? mBodyTextColor : convertToTrans(mBodyTextColor);
-        endElem.briefTextColor = mBriefTextEnable ? mBriefTextColor : convertToTrans(mBriefTextColor);
-        endElem.bodyBaseLineY = bodyBaseLineY();
-        endElem.briefBaseLineY = briefBaseLineY();
+        startElem.setBodyTextColor(mCurrentAnimElem.bodyTextColor);
+        startElem.setBodyBaseLineY(mCurrentAnimElem.bodyBaseLineY);
+        startElem.setBriefTextColor(mCurrentAnimElem.briefTextColor);
+        startElem.setBriefBaseLineY(mCurrentAnimElem.briefBaseLineY);
+        endElem.setBodyTextColor(mBodyTextEnable ? mBodyTextColor : convertToTrans(mBodyTextColor));
+        endElem.setBriefTextColor(mBriefTextEnable ? mBriefTextColor : convertToTrans(mBriefTextColor));
+        updateLayoutResult();
+        endElem.setBodyBaseLineY(mBodyTextY);
+        endElem.setBriefBaseLineY(mBriefTextY);
     }
 
     private void updateAnimation(OivAnimatorElement element) {
-        if (element.isSetBodyBaseLineY()) {
-            mCurrentAnimElem.bodyBaseLineY = element.bodyBaseLineY;
+        int mask = element.mask;
+        if ((mask & OivAnimatorElement.FLAG_BODY_BASE_LINE_Y) != 0) {
+            mCurrentAnimElem.setBodyBaseLineY(element.bodyBaseLineY);
         }
-        if (element.isSetBriefBaseLineY()) {
-            mCurrentAnimElem.briefBaseLineY = element.briefBaseLineY;
+        if ((mask & OivAnimatorElement.FLAG_BRIEF_BASE_LINE_Y) != 0) {
+            mCurrentAnimElem.setBriefBaseLineY(element.briefBaseLineY);
         }
-        if (element.isSetBodyTextColor()) {
-            mCurrentAnimElem.bodyTextColor = element.bodyTextColor;
-            mBodyPaint.setColor(mCurrentAnimElem.bodyTextColor);
+        if ((mask & OivAnimatorElement.FLAG_BODY_TEXT_COLOR) != 0) {
+            mCurrentAnimElem.setBodyTextColor(element.bodyTextColor);
         }
-        if (element.isSetBriefTextColor()) {
-            mCurrentAnimElem.briefTextColor = element.briefTextColor;
-            mBriefPaint.setColor(mCurrentAnimElem.briefTextColor);
+        if ((mask & OivAnimatorElement.FLAG_BRIEF_TEXT_COLOR) != 0) {
+            mCurrentAnimElem.setBriefTextColor(element.briefTextColor);
         }
-        invalidate();
+        // 动画只改变颜色与基线位置，仅需重绘
+        commitChanges(CHANGE_DRAW);
     }
 
     private void startAnimation() {
+        cancelAnimation();
+        readyAnimation(mStartUpdateAnimElem, mEndUpdateAnimElem);
+        if (mAnimator == null) {
+            mAnimator = ValueAnimator.ofFloat(0f, 1f);
+            mAnimator.addUpdateListener(this);
+            mAnimator.setDuration(300);
+            mAnimatorCreateCount++;
+        }
+        mAnimator.start();
+        if (isMetricsEnabled()) OivMetrics.recordEvent(this, mMetricsListener, OivMetrics.EVENT_ANIMATOR_START);
+    }
+
+    /**
+     * 停止正在进行的切换动画，当前插值状态保留，作为下一次动画或百分比切换的起点
+     */
+    private void cancelAnimation() {
+        if (mAnimator != null && mAnimator.isStarted()) mAnimator.cancel();
+    }
+
+    /**
+     * 取消动画并直接跳到当前状态对应的结束值，不停留在半透明的中间帧
+     */
+    private void finishAnimation() {
+        cancelAnimation();
         readyAnimation(mStartUpdateAnimElem, mEndUpdateAnimElem);
-        ValueAnimator animator = ValueAnimator.ofObject(mEvaluator, mStartUpdateAnimElem, mEndUpdateAnimElem);
-        animator.addUpdateListener(this);
-        animator.setDuration(300);
-        animator.start();
+        updateAnimation(mEndUpdateAnimElem);
+    }
+
+    /**
+     * 当前绘制正文所用的颜色，供测试校验动画状态
+     */
+    int getDrawnBodyTextColor() {
+        return mCurrentAnimElem.bodyTextColor;
+    }
+
+    /**
+     * 创建过的动画数量，供测试校验多次切换只复用同一个动画
+     */
+    int getAnimatorCreateCount() {
+        return mAnimatorCreateCount;
+    }
+
+    boolean isAnimationRunning() {
+        return mAnimator != null && mAnimator.isStarted();
+    }
+
+    /**
+     * 离开窗口时取消动画，并直接落到目标状态
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mPercentFramePosted) {
+            removeCallbacks(mPercentFrameRunnable);
+            mPercentFramePosted = false;
+            applyPendingPercents();
+        }
+        if (!isAnimationRunning()) return;
+        mAnimator.cancel();
+        updateAnimation(mEndUpdateAnimElem);
     }
 
     @Override
@@ -989,6 +1382,17 @@ public class OperableItemView extends View implements ValueAnimator.AnimatorUpda
         return super.onTouchEvent(event);
     }
 
+    /**
+     * 设置后本控件开始统计各阶段耗时，传入null关闭；全局统计见{@link OivMetrics#setEnabled(boolean)}
+     */
+    public void setOnMetricsListener(OivMetrics.Listener listener) {
+        mMetricsListener = listener;
+    }
+
+    private boolean isMetricsEnabled() {
+        return mMetricsListener != null || OivMetrics.isEnabled();
+    }
+
     public void setOnClickDrawableListener(OnClickDrawableListener listener) {
         mListener = listener;
     }
@@ -0,0 +1,77 @@
+package com.andova.oiv;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 比较XML属性创建与代码构建两种方式创建1000个控件的耗时，结果输出到标准输出
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivCreationBenchmarkTest {
+    private static final int COUNT = 1000;
+    private Context mContext;
+    private AttributeSet mAttrs;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = RuntimeEnvironment.application;
+        mAttrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.oiv_bodyTextSize, "32px")
+                .addAttribute(R.attr.oiv_briefTextSize, "24px")
+                .addAttribute(R.attr.oiv_drawablePadding, "8px")
+                .addAttribute(R.attr.oiv_gravity, "0x10")
+                .build();
+        OivStyle.clear();
+        // 预热
+        for (int i = 0; i < COUNT; i++) {
+            new OperableItemView(mContext, mAttrs);
+            new OperableItemView(mContext);
+        }
+    }
+
+    @Test
+    public void compareXmlInflationWithBuilder() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            OivStyle.clear();
+            new OperableItemView(mContext, mAttrs);
+        }
+        long xmlUncached = System.nanoTime() - start;
+
+        OivStyle.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < COUNT; i++) {
+            new OperableItemView(mContext, mAttrs);
+        }
+        long xmlCached = System.nanoTime() - start;
+        assertEquals(1, OivStyle.resolveCount());
+
+        OivStyle.clear();
+        start = System.nanoTime();
+        OivStyle style = new OivStyle.Builder()
+                .setBodyTextSize(32)
+                .setBriefTextSize(24)
+                .setDrawablePadding(8)
+                .setGravity(OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_VERTICAL)
+                .build();
+        for (int i = 0; i < COUNT; i++) {
+            OperableItemView.create(mContext, style);
+        }
+        long builder = System.nanoTime() - start;
+        assertEquals(0, OivStyle.resolveCount());
+
+        System.out.println(String.format("OperableItemView x%d: xml(uncached) %.2fms, xml(cached style) %.2fms, builder %.2fms",
+                COUNT, xmlUncached / 1e6, xmlCached / 1e6, builder / 1e6));
+    }
+}
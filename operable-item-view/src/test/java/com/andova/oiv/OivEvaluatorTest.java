@@ -0,0 +1,78 @@
+package com.andova.oiv;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link OivEvaluator}, which will execute on the development machine (host).
+ */
+public class OivEvaluatorTest {
+    private final OivEvaluator mEvaluator = new OivEvaluator();
+
+    private OivAnimatorElement element(int bodyTextColor, float bodyBaseLineY) {
+        OivAnimatorElement element = new OivAnimatorElement();
+        element.setBodyTextColor(bodyTextColor);
+        element.setBodyBaseLineY(bodyBaseLineY);
+        return element;
+    }
+
+    @Test
+    public void evaluateIntoTarget_matchesAllocatingPath() throws Exception {
+        OivAnimatorElement start = element(0xff333333, 10f);
+        OivAnimatorElement end = element(0x00333333, 30f);
+        OivAnimatorElement target = new OivAnimatorElement();
+        for (float fraction = 0f; fraction <= 1f; fraction += 0.125f) {
+            OivAnimatorElement expected = mEvaluator.evaluate(fraction, start, end);
+            assertSame(target, mEvaluator.evaluate(fraction, start, end, target));
+            assertEquals(expected.bodyTextColor, target.bodyTextColor);
+            assertEquals(expected.bodyBaseLineY, target.bodyBaseLineY, 0f);
+            assertEquals(expected.isSetBriefTextColor(), target.isSetBriefTextColor());
+        }
+    }
+
+    @Test
+    public void whiteTextColor_isAnimated() throws Exception {
+        OivAnimatorElement target = mEvaluator.evaluate(0.5f, element(0xffffffff, 0f), element(0x00ffffff, 0f),
+                new OivAnimatorElement());
+        assertTrue(target.isSetBodyTextColor());
+        assertEquals(0x80ffffff, target.bodyTextColor);
+    }
+
+    @Test
+    public void unsetChannelOnEitherSide_isSkipped() throws Exception {
+        OivAnimatorElement start = element(0xff000000, 0f);
+        start.setBriefTextColor(0xff000000);
+        start.setBriefBaseLineY(20f);
+        OivAnimatorElement end = element(0xff000000, 0f);
+        end.setBriefBaseLineY(40f);
+        OivAnimatorElement target = mEvaluator.evaluate(0.5f, start, end, new OivAnimatorElement());
+        assertTrue(target.isSetBriefBaseLineY());
+        assertEquals(30f, target.briefBaseLineY, 0f);
+        assertFalse(target.isSetBriefTextColor());
+    }
+
+    @Test
+    public void evaluateIntoTarget_doesNotAllocateAfterWarmUp() throws Exception {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        OivAnimatorElement start = element(0xff333333, 10f);
+        OivAnimatorElement end = element(0x00333333, 30f);
+        OivAnimatorElement target = new OivAnimatorElement();
+        int frames = 100000;
+        for (int i = 0; i < frames; i++) {
+            mEvaluator.evaluate((float) i / frames, start, end, target);
+        }
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < frames; i++) {
+            mEvaluator.evaluate((float) i / frames, start, end, target);
+        }
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(0, allocated / frames);
+    }
+}
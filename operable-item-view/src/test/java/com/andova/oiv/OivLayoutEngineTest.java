@@ -0,0 +1,94 @@
+package com.andova.oiv;
+
+import org.junit.Test;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_RIGHT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link OivLayoutEngine}, which will execute on the development machine (host).
+ */
+public class OivLayoutEngineTest {
+    /**
+     * 480x100的条目，左右内边距各10，两端各一个40x40的图标，两段文本各宽100高20
+     */
+    private OivLayoutSpec.Builder row() {
+        return new OivLayoutSpec.Builder()
+                .size(480, 100)
+                .padding(10, 5, 10, 5)
+                .drawablePadding(8)
+                .textInterval(4)
+                .startDrawable(true, 40, 40)
+                .endDrawable(true, 40, 40)
+                .briefText(false, true, 20f)
+                .bodyText(false, true, 20f)
+                .textLayout(100, 20, 100, 20);
+    }
+
+    @Test
+    public void leftTopSpreadInside() throws Exception {
+        OivLayoutResult result = OivLayoutEngine.layout(row()
+                .gravity(OIV_GRAVITY_FLAG_LEFT | OIV_GRAVITY_FLAG_TOP).build());
+        assertEquals(10 + 8 + 40, result.briefTextX);
+        assertEquals(5, result.briefTextY);
+        assertEquals(5 + 20 + 4, result.bodyTextY);
+        assertEquals(10, result.startDrawableLeft);
+        assertEquals(50 - 20, result.startDrawableTop);
+        assertEquals(480 - 10, result.endDrawableRight);
+        assertEquals(480 - 10 - 40, result.endDrawableLeft);
+        assertFalse(result.dividerShown);
+    }
+
+    @Test
+    public void centerPacked_wrapsDrawablesAroundText() throws Exception {
+        OivLayoutResult result = OivLayoutEngine.layout(row()
+                .gravity(OIV_GRAVITY_FLAG_CENTER)
+                .drawableChainStyle(OIV_DRAWABLE_CHAIN_STYLE_PACKED).build());
+        assertEquals(240, result.briefTextX);
+        assertEquals(240 - 50 - 8 - 40, result.startDrawableLeft);
+        assertEquals(240 + 50 + 8 + 40, result.endDrawableRight);
+        assertEquals((100 - 4 - 20 - 20) / 2, result.briefTextY);
+        assertEquals(100 - (100 - 4 - 20 - 20) / 2 - 20, result.bodyTextY);
+    }
+
+    @Test
+    public void centerVertical_disabledBody_centersBrief() throws Exception {
+        OivLayoutResult result = OivLayoutEngine.layout(row()
+                .gravity(OIV_GRAVITY_FLAG_CENTER)
+                .bodyText(false, false, 20f).build());
+        assertEquals(50 - 10, result.briefTextY);
+    }
+
+    @Test
+    public void rightGravity_rightAlignsText() throws Exception {
+        OivLayoutResult result = OivLayoutEngine.layout(row().gravity(OIV_GRAVITY_FLAG_RIGHT).build());
+        int occupied = 10 + 10 + 8 + 40 + 8 + 40;
+        assertEquals(480 - occupied - 100 + 100 + 10 + 8 + 40, result.briefTextX);
+    }
+
+    @Test
+    public void briefAlignedDrawable_hiddenWithoutBriefText() throws Exception {
+        OivLayoutResult result = OivLayoutEngine.layout(row()
+                .drawableAlignStyle(OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START)
+                .briefText(true, true, 20f).build());
+        assertFalse(result.startDrawableShown);
+        assertTrue(result.endDrawableShown);
+    }
+
+    @Test
+    public void measureHelpers() throws Exception {
+        OivLayoutSpec spec = row().divider(true).build();
+        assertEquals(480 - 10 - 10 - 48 - 48, OivLayoutEngine.usableMaxTextWidth(spec));
+        assertEquals(44f, OivLayoutEngine.contentHeight(spec), 0f);
+        OivLayoutResult result = OivLayoutEngine.layout(spec);
+        assertEquals(10 + 8 + 40, result.dividerLeft);
+        assertEquals(99, result.dividerTop);
+    }
+}
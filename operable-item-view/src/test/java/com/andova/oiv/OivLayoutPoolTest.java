@@ -0,0 +1,98 @@
+package com.andova.oiv;
+
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivLayoutPoolTest {
+    @Before
+    public void setUp() throws Exception {
+        OivLayoutPool.setMaxSize(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        OivLayoutPool.setMaxSize(0);
+    }
+
+    private TextPaint paint(int color, float textSize) {
+        TextPaint paint = new TextPaint();
+        paint.setColor(color);
+        paint.setTextSize(textSize);
+        return paint;
+    }
+
+    @Test
+    public void disabledPool_returnsNull() throws Exception {
+        OivLayoutPool.setMaxSize(0);
+        assertNull(OivLayoutPool.obtain("On", paint(0xff000000, 28), 100, Layout.Alignment.ALIGN_NORMAL));
+    }
+
+    @Test
+    public void equalKeyIgnoringColour_sharesLayout() throws Exception {
+        StaticLayout first = OivLayoutPool.obtain("On", paint(0xff000000, 28), 100, Layout.Alignment.ALIGN_NORMAL);
+        StaticLayout second = OivLayoutPool.obtain("On", paint(0xffff0000, 28), 100, Layout.Alignment.ALIGN_NORMAL);
+        assertSame(first, second);
+        assertEquals(1, OivLayoutPool.hitCount());
+        assertEquals(1, OivLayoutPool.missCount());
+    }
+
+    @Test
+    public void differentSizeOrWidth_missesPool() throws Exception {
+        StaticLayout first = OivLayoutPool.obtain("On", paint(0xff000000, 28), 100, Layout.Alignment.ALIGN_NORMAL);
+        assertNotSame(first, OivLayoutPool.obtain("On", paint(0xff000000, 30), 100, Layout.Alignment.ALIGN_NORMAL));
+        assertNotSame(first, OivLayoutPool.obtain("On", paint(0xff000000, 28), 120, Layout.Alignment.ALIGN_NORMAL));
+        assertEquals(3, OivLayoutPool.missCount());
+        assertEquals(1, OivLayoutPool.evictionCount());
+    }
+
+    @Test
+    public void boringLayout_isPooledApartFromStaticLayout() throws Exception {
+        TextPaint paint = paint(0xff000000, 28);
+        BoringLayout.Metrics metrics = BoringLayout.isBoring("On", paint);
+        BoringLayout first = OivLayoutPool.obtainBoring("On", paint, 100, Layout.Alignment.ALIGN_NORMAL, metrics);
+        BoringLayout second = OivLayoutPool.obtainBoring("On", paint(0xffff0000, 28), 100,
+                Layout.Alignment.ALIGN_NORMAL, metrics);
+        assertSame(first, second);
+        assertNotSame(first.getPaint(), paint);
+        StaticLayout layout = OivLayoutPool.obtain("On", paint, 100, Layout.Alignment.ALIGN_NORMAL);
+        assertNotSame(first, layout);
+        assertEquals(1, OivLayoutPool.hitCount());
+    }
+
+    @Test
+    public void singleLineRows_shareBoringLayouts() throws Exception {
+        OperableItemView first = row();
+        OperableItemView second = row();
+        assertEquals(2, first.getBoringLayoutCount());
+        assertEquals(2, second.getBoringLayoutCount());
+        assertEquals(2, OivLayoutPool.missCount());
+        assertEquals(2, OivLayoutPool.hitCount());
+    }
+
+    private OperableItemView row() {
+        OperableItemView view = new OperableItemView(RuntimeEnvironment.application, null);
+        view.setBodyText("body");
+        view.setBriefText("brief");
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return view;
+    }
+}
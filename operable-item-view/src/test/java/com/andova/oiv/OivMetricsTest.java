@@ -0,0 +1,96 @@
+package com.andova.oiv;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivMetricsTest {
+    private OperableItemView mView;
+
+    @Before
+    public void setUp() throws Exception {
+        OivMetrics.reset();
+        mView = new OperableItemView(RuntimeEnvironment.application, null);
+        mView.setBodyText("body");
+        mView.setBriefText("brief");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        OivMetrics.setEnabled(false);
+        OivMetrics.reset();
+    }
+
+    private void runFrame() {
+        mView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mView.onDraw(new Canvas(Bitmap.createBitmap(480, 200, Bitmap.Config.ARGB_8888)));
+    }
+
+    @Test
+    public void disabled_recordsNothing() throws Exception {
+        runFrame();
+        assertEquals(0, OivMetrics.histogram(OivMetrics.PHASE_MEASURE).getCount());
+        assertEquals(0, OivMetrics.histogram(OivMetrics.PHASE_DRAW).getCount());
+        assertEquals(0, OivMetrics.eventCount(OivMetrics.EVENT_STATIC_LAYOUT_BUILD));
+    }
+
+    @Test
+    public void enabled_recordsEveryPhase() throws Exception {
+        OivMetrics.setEnabled(true);
+        runFrame();
+        assertEquals(1, OivMetrics.histogram(OivMetrics.PHASE_MEASURE).getCount());
+        assertEquals(1, OivMetrics.histogram(OivMetrics.PHASE_STATIC_LAYOUT).getCount());
+        assertEquals(1, OivMetrics.histogram(OivMetrics.PHASE_LAYOUT).getCount());
+        assertEquals(1, OivMetrics.histogram(OivMetrics.PHASE_DRAW).getCount());
+        assertEquals(2, OivMetrics.eventCount(OivMetrics.EVENT_STATIC_LAYOUT_BUILD));
+        mView.enableBodyText(false, true);
+        assertEquals(1, OivMetrics.eventCount(OivMetrics.EVENT_ANIMATOR_START));
+    }
+
+    @Test
+    public void listener_receivesPhasesWithoutGlobalRegistry() throws Exception {
+        final int[] phases = new int[4];
+        mView.setOnMetricsListener(new OivMetrics.Listener() {
+            @Override
+            public void onPhase(OperableItemView view, int phase, long nanos) {
+                assertTrue(nanos >= 0);
+                phases[phase]++;
+            }
+
+            @Override
+            public void onEvent(OperableItemView view, int event) {
+            }
+        });
+        runFrame();
+        assertEquals(1, phases[OivMetrics.PHASE_MEASURE]);
+        assertEquals(1, phases[OivMetrics.PHASE_DRAW]);
+        assertEquals(0, OivMetrics.histogram(OivMetrics.PHASE_DRAW).getCount());
+    }
+
+    @Test
+    public void histogram_percentiles() throws Exception {
+        OivMetrics.Histogram histogram = new OivMetrics.Histogram();
+        for (int i = 0; i < 90; i++) histogram.record(1000);
+        for (int i = 0; i < 10; i++) histogram.record(100000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(1024, histogram.getPercentile(0.5f));
+        assertEquals(100000, histogram.getPercentile(0.99f));
+        assertEquals(100000, histogram.getMax());
+        assertEquals((90 * 1000 + 10 * 100000) / 100, histogram.getMean());
+    }
+}
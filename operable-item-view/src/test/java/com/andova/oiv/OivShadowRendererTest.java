@@ -0,0 +1,69 @@
+package com.andova.oiv;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit test for {@link OivShadowRenderer}, which will execute on the development machine (host).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivShadowRendererTest {
+    /**
+     * 记录九宫格绘制调用的画布
+     */
+    private static class PatchCountingCanvas extends Canvas {
+        int patches;
+
+        PatchCountingCanvas() {
+            super(Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888));
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            patches++;
+        }
+    }
+
+    private int drawPatches(int side) {
+        PatchCountingCanvas canvas = new PatchCountingCanvas();
+        new OivShadowRenderer(8, 0, 0, 0x40000000, side).draw(canvas, new RectF(20, 20, 180, 80));
+        return canvas.patches;
+    }
+
+    @Test
+    public void allSides_drawsEveryPatch() throws Exception {
+        assertEquals(9, drawPatches(OivShadowPatch.SIDE_ALL));
+    }
+
+    @Test
+    public void unsetSides_areSkipped() throws Exception {
+        // 下边与两个下角，以及中心
+        assertEquals(4, drawPatches(OivShadowPatch.SIDE_BOTTOM));
+        // 左、下两边与除右上角外的三个角，以及中心
+        assertEquals(6, drawPatches(OivShadowPatch.SIDE_LEFT | OivShadowPatch.SIDE_BOTTOM));
+    }
+
+    @Test
+    public void offsetsAndSides_shareOneCachedBitmap() throws Exception {
+        RectF content = new RectF(20, 20, 180, 80);
+        int misses = OivShadowRenderer.missCount();
+        int hits = OivShadowRenderer.hitCount();
+        new OivShadowRenderer(6, 0, 0, 0x12345678, OivShadowPatch.SIDE_ALL).draw(new PatchCountingCanvas(), content);
+        new OivShadowRenderer(6, 2, 4, 0x12345678, OivShadowPatch.SIDE_BOTTOM).draw(new PatchCountingCanvas(), content);
+        assertEquals(misses + 1, OivShadowRenderer.missCount());
+        assertEquals(hits + 1, OivShadowRenderer.hitCount());
+        new OivShadowRenderer(6, 0, 0, 0x12345679, OivShadowPatch.SIDE_ALL).draw(new PatchCountingCanvas(), content);
+        assertEquals(misses + 2, OivShadowRenderer.missCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.andova.oiv;
+
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivStyleTest {
+    @Before
+    public void setUp() throws Exception {
+        OivStyle.clear();
+    }
+
+    @Test
+    public void sameAttributes_areResolvedOnce() throws Exception {
+        OivStyle first = OivStyle.obtain(RuntimeEnvironment.application, null);
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, OivStyle.obtain(RuntimeEnvironment.application, null));
+        }
+        assertEquals(1, OivStyle.resolveCount());
+        assertEquals(10, OivStyle.hitCount());
+    }
+
+    @Test
+    public void views_sharePaintsUntilOverridden() throws Exception {
+        OperableItemView first = new OperableItemView(RuntimeEnvironment.application, null);
+        OperableItemView second = new OperableItemView(RuntimeEnvironment.application, null);
+        assertEquals(1, OivStyle.resolveCount());
+        assertSame(first.getBodyPaint(), second.getBodyPaint());
+        assertSame(first.getBriefPaint(), second.getBriefPaint());
+
+        first.setBodyTextSize(40);
+        assertNotSame(first.getBodyPaint(), second.getBodyPaint());
+        assertEquals(40f, first.getBodyPaint().getTextSize(), 0f);
+        assertEquals(28f, second.getBodyPaint().getTextSize(), 0f);
+        assertSame(first.getBriefPaint(), second.getBriefPaint());
+    }
+
+    @Test
+    public void differentInlineAttributes_resolveSeparately() throws Exception {
+        OivStyle small = OivStyle.obtain(RuntimeEnvironment.application, bodyTextSize("20px"));
+        OivStyle large = OivStyle.obtain(RuntimeEnvironment.application, bodyTextSize("40px"));
+        assertNotSame(small, large);
+        assertSame(small, OivStyle.obtain(RuntimeEnvironment.application, bodyTextSize("20px")));
+        assertEquals(2, OivStyle.resolveCount());
+        assertEquals(20f, small.bodyPaint.getTextSize(), 0f);
+        assertEquals(40f, large.bodyPaint.getTextSize(), 0f);
+    }
+
+    private AttributeSet bodyTextSize(String value) {
+        return Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.oiv_bodyTextSize, value)
+                .build();
+    }
+
+    @Test
+    public void builderStyle_skipsAttributeParsing() throws Exception {
+        OivStyle style = new OivStyle.Builder()
+                .setBodyText("body")
+                .setBodyTextSize(36)
+                .build();
+        OperableItemView first = OperableItemView.create(RuntimeEnvironment.application, style);
+        OperableItemView second = OperableItemView.create(RuntimeEnvironment.application, style);
+        new OperableItemView(RuntimeEnvironment.application);
+        assertEquals(0, OivStyle.resolveCount());
+        assertSame(first.getBodyPaint(), second.getBodyPaint());
+        assertEquals(36f, first.getBodyPaint().getTextSize(), 0f);
+    }
+}
@@ -0,0 +1,63 @@
+package com.andova.oiv;
+
+import android.text.Layout;
+import android.text.TextPaint;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 比较单行文本走{@link android.text.BoringLayout}快速路径与原先测量后构建StaticLayout的耗时，结果输出到标准输出
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivTextLayoutBenchmarkTest {
+    private static final int COUNT = 2000;
+    private static final int MAX_TEXT_WIDTH = 480;
+    private final String[] mTexts = new String[COUNT];
+    private TextPaint mPaint;
+
+    @Before
+    public void setUp() throws Exception {
+        mPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+        mPaint.setTextSize(28);
+        for (int i = 0; i < COUNT; i++) mTexts[i] = "row " + i;
+        // 预热
+        for (String text : mTexts) {
+            boringPath(text);
+            staticPath(text);
+        }
+    }
+
+    @Test
+    public void compareBoringWithStaticLayout() throws Exception {
+        int height = 0;
+        long start = System.nanoTime();
+        for (String text : mTexts) height += boringPath(text).getHeight();
+        long boring = System.nanoTime() - start;
+
+        int staticHeight = 0;
+        start = System.nanoTime();
+        for (String text : mTexts) staticHeight += staticPath(text).getHeight();
+        long staticLayout = System.nanoTime() - start;
+
+        assertEquals(staticHeight, height);
+        System.out.println(String.format("single-line text layout x%d: boring %.2fms, static %.2fms",
+                COUNT, boring / 1e6, staticLayout / 1e6));
+    }
+
+    private Layout boringPath(String text) {
+        return OperableItemView.newTextLayout(text, mPaint, OIV_DRAWABLE_CHAIN_STYLE_PACKED, MAX_TEXT_WIDTH, 0, false);
+    }
+
+    private Layout staticPath(String text) {
+        return OperableItemView.newStaticLayout(text, mPaint,
+                OperableItemView.textLayoutWidth(text, mPaint, OIV_DRAWABLE_CHAIN_STYLE_PACKED, MAX_TEXT_WIDTH));
+    }
+}
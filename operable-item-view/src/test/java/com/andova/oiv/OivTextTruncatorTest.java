@@ -0,0 +1,85 @@
+package com.andova.oiv;
+
+import android.text.Layout;
+import android.text.TextPaint;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link OivTextTruncator}, which will execute on the development machine (host).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivTextTruncatorTest {
+    private static final int WIDTH = 200;
+    private static final int CHAR_WIDTH = 10;
+    private static final int CHARS_PER_LINE = WIDTH / CHAR_WIDTH;
+    private TextPaint mPaint;
+
+    @Before
+    public void setUp() throws Exception {
+        mPaint = new FixedWidthPaint();
+        mPaint.setTextSize(28);
+    }
+
+    private static String longText(int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) builder.append("word").append(i).append(' ');
+        return builder.toString();
+    }
+
+    @Test
+    public void shortText_isReturnedAsIs() throws Exception {
+        String text = "short";
+        assertSame(text, OivTextTruncator.truncate(text, mPaint, WIDTH, 2, true));
+        String unlimited = longText(100);
+        assertSame(unlimited, OivTextTruncator.truncate(unlimited, mPaint, WIDTH, 0, true));
+    }
+
+    @Test
+    public void longText_isCutToVisibleLines() throws Exception {
+        String text = longText(100000);
+        String truncated = OivTextTruncator.truncate(text, mPaint, WIDTH, 2, false);
+        assertTrue(text.startsWith(truncated));
+        assertTrue(truncated.length() <= 2 * CHARS_PER_LINE);
+    }
+
+    @Test
+    public void ellipsize_endsLastLineWithEllipsis() throws Exception {
+        String truncated = OivTextTruncator.truncate(longText(100), mPaint, WIDTH, 3, true);
+        assertTrue(truncated.endsWith("…"));
+        assertTrue(truncated.length() <= 3 * CHARS_PER_LINE);
+    }
+
+    @Test
+    public void newLines_countAsLines() throws Exception {
+        Layout layout = OperableItemView.newTextLayout("a\nb\nc\nd", mPaint, OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE, WIDTH, 2, true);
+        assertEquals(2, layout.getLineCount());
+        assertEquals("a\nb…", layout.getText().toString());
+    }
+
+    /**
+     * Robolectric中的画笔不做真实测量，这里按每个字符固定宽度计算
+     */
+    private static class FixedWidthPaint extends TextPaint {
+        @Override
+        public float measureText(String text) {
+            return text.length() * CHAR_WIDTH;
+        }
+
+        @Override
+        public int breakText(CharSequence text, int start, int end, boolean measureForwards, float maxWidth,
+                             float[] measuredWidth) {
+            return Math.min(end - start, (int) (maxWidth / CHAR_WIDTH));
+        }
+    }
+}
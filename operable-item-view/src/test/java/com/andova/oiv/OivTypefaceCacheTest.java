@@ -0,0 +1,50 @@
+package com.andova.oiv;
+
+import android.content.res.AssetManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OivTypefaceCacheTest {
+    private AssetManager mAssets;
+
+    @Before
+    public void setUp() throws Exception {
+        OivTypefaceCache.clear();
+        mAssets = RuntimeEnvironment.application.getAssets();
+    }
+
+    @Test
+    public void emptyPath_doesNotLoad() throws Exception {
+        assertNull(OivTypefaceCache.obtain(mAssets, null));
+        assertNull(OivTypefaceCache.obtain(mAssets, ""));
+        assertEquals(0, OivTypefaceCache.loadCount());
+        assertEquals(0, OivTypefaceCache.size());
+    }
+
+    @Test
+    public void samePath_isLoadedOnce() throws Exception {
+        OivTypefaceCache.obtain(mAssets, "fonts/missing.ttf");
+        OivTypefaceCache.obtain(mAssets, "fonts/missing.ttf");
+        OivTypefaceCache.obtain(mAssets, "fonts/missing.ttf");
+        assertEquals(1, OivTypefaceCache.loadCount());
+        assertEquals(2, OivTypefaceCache.hitCount());
+    }
+
+    @Test
+    public void inflatedViews_withoutTypeface_doNotLoad() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            new OperableItemView(RuntimeEnvironment.application, null);
+        }
+        assertEquals(0, OivTypefaceCache.loadCount());
+    }
+}
@@ -0,0 +1,146 @@
+package com.andova.oiv;
+
+import android.graphics.drawable.GradientDrawable;
+import android.os.SystemClock;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link OperableItemGroupView}, which will execute on the development machine (host).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OperableItemGroupViewTest {
+    private static final int WIDTH = 480;
+    private OperableItemGroupView mGroup;
+    private final List<String> mClicks = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        GradientDrawable start = new GradientDrawable();
+        start.setSize(40, 40);
+        GradientDrawable end = new GradientDrawable();
+        end.setSize(40, 40);
+        OivStyle style = new OivStyle.Builder()
+                .setStartDrawable(start)
+                .setEndDrawable(end)
+                .build();
+        mGroup = new OperableItemGroupView(RuntimeEnvironment.application, style);
+        List<OperableItemGroupView.Item> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) items.add(new OperableItemGroupView.Item("body" + i, "brief" + i));
+        mGroup.setItems(items);
+        mGroup.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        mGroup.layout(0, 0, mGroup.getMeasuredWidth(), mGroup.getMeasuredHeight());
+        mGroup.setOnClickItemListener(new OperableItemGroupView.OnClickItemListener() {
+            @Override
+            public void onItemClick(OperableItemGroupView group, int position) {
+                mClicks.add("item" + position);
+            }
+
+            @Override
+            public void onStartDrawableClick(OperableItemGroupView group, int position) {
+                mClicks.add("start" + position);
+            }
+
+            @Override
+            public void onEndDrawableClick(OperableItemGroupView group, int position) {
+                mClicks.add("end" + position);
+            }
+        });
+    }
+
+    private int rowHeight() {
+        return mGroup.getMeasuredHeight() / mGroup.getItemCount();
+    }
+
+    private void tap(int x, int y) {
+        long time = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(time, time, MotionEvent.ACTION_UP, x, y, 0);
+        mGroup.onTouchEvent(down);
+        mGroup.onTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    @Test
+    public void rows_areStackedVertically() throws Exception {
+        int rowHeight = rowHeight();
+        assertEquals(3 * rowHeight, mGroup.getMeasuredHeight());
+        assertEquals(0, mGroup.findRow(0));
+        assertEquals(1, mGroup.findRow(rowHeight));
+        assertEquals(2, mGroup.findRow(3 * rowHeight - 1));
+        assertEquals(-1, mGroup.findRow(3 * rowHeight));
+    }
+
+    @Test
+    public void touches_areRoutedToRowAndDrawable() throws Exception {
+        mGroup.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                mClicks.add("view");
+            }
+        });
+        int rowHeight = rowHeight();
+        tap(WIDTH / 2, rowHeight + rowHeight / 2);
+        tap(1, 2 * rowHeight + rowHeight / 2);
+        tap(WIDTH - 1, rowHeight / 2);
+        assertEquals("[view, item1, view, start2, view, end0]", mClicks.toString());
+    }
+
+    @Test
+    public void rowsAndDrawables_areVirtualViews() throws Exception {
+        OperableItemGroupView.RowTouchHelper helper = mGroup.getTouchHelper();
+        List<Integer> ids = new ArrayList<>();
+        helper.getVisibleVirtualViews(ids);
+        assertEquals(9, ids.size());
+
+        int rowHeight = rowHeight();
+        assertEquals(ExploreByTouchHelper.INVALID_ID, helper.getVirtualViewAt(WIDTH / 2, 3 * rowHeight));
+        int row = helper.getVirtualViewAt(WIDTH / 2, rowHeight + rowHeight / 2);
+        int start = helper.getVirtualViewAt(1, 2 * rowHeight + rowHeight / 2);
+        int end = helper.getVirtualViewAt(WIDTH - 1, rowHeight / 2);
+        assertTrue(ids.contains(row) && ids.contains(start) && ids.contains(end));
+        assertTrue(helper.onPerformActionForVirtualView(row, AccessibilityNodeInfoCompat.ACTION_CLICK, null));
+        assertTrue(helper.onPerformActionForVirtualView(start, AccessibilityNodeInfoCompat.ACTION_CLICK, null));
+        assertTrue(helper.onPerformActionForVirtualView(end, AccessibilityNodeInfoCompat.ACTION_CLICK, null));
+        assertEquals("[item1, start2, end0]", mClicks.toString());
+    }
+
+    @Test
+    public void rowChange_invalidatesOnlyThatRow() throws Exception {
+        mGroup.setBriefText(1, "changed");
+        mGroup.setBriefText(1, "changed");
+        assertEquals(1, mGroup.getRowInvalidateCount());
+        assertEquals("changed", mGroup.getItem(1).getBriefText());
+    }
+
+    @Test
+    public void rowChange_replacesItemInsteadOfMutatingIt() throws Exception {
+        OperableItemGroupView.Item item = mGroup.getItem(2);
+        mGroup.setDrawableVisible(2, false, true);
+        assertTrue(item.isStartDrawableVisible());
+        assertFalse(mGroup.getItem(2).isStartDrawableVisible());
+        assertEquals("body2", mGroup.getItem(2).getBodyText());
+        List<Integer> ids = new ArrayList<>();
+        mGroup.getTouchHelper().getVisibleVirtualViews(ids);
+        assertEquals(8, ids.size());
+    }
+}
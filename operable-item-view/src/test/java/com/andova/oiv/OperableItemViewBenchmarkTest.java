@@ -0,0 +1,160 @@
+package com.andova.oiv;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BODY_END;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BODY_START;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START;
+import static com.andova.oiv.OperableItemView.DrawableAlignStyle.OIV_DRAWABLE_ALIGN_STYLE_NORMAL;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_PACKED;
+import static com.andova.oiv.OperableItemView.DrawableChainStyle.OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_BOTTOM;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_HORIZONTAL;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_CENTER_VERTICAL;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_LEFT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_RIGHT;
+import static com.andova.oiv.OperableItemView.Gravity.OIV_GRAVITY_FLAG_TOP;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 不依赖设备的完整生命周期基准：创建、多宽度测量、布局与离屏绘制，
+ * 覆盖oiv_gravity、oiv_drawableChainStyle、oiv_drawableAlignStyle与阴影开关的所有组合，
+ * 按阶段输出每次操作的平均耗时与分配字节数
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OperableItemViewBenchmarkTest {
+    private static final int ITERATIONS = 10;
+    private static final int[] WIDTHS = {320, 480, 1080};
+    private static final int[] GRAVITIES = {OIV_GRAVITY_FLAG_LEFT, OIV_GRAVITY_FLAG_TOP, OIV_GRAVITY_FLAG_RIGHT,
+            OIV_GRAVITY_FLAG_BOTTOM, OIV_GRAVITY_FLAG_CENTER, OIV_GRAVITY_FLAG_CENTER_VERTICAL,
+            OIV_GRAVITY_FLAG_CENTER_HORIZONTAL};
+    private static final int[] CHAIN_STYLES = {OIV_DRAWABLE_CHAIN_STYLE_SPREAD_INSIDE, OIV_DRAWABLE_CHAIN_STYLE_PACKED};
+    private static final int[] ALIGN_STYLES = {OIV_DRAWABLE_ALIGN_STYLE_BRIEF_START, OIV_DRAWABLE_ALIGN_STYLE_BODY_START,
+            OIV_DRAWABLE_ALIGN_STYLE_BRIEF_END, OIV_DRAWABLE_ALIGN_STYLE_BODY_END, OIV_DRAWABLE_ALIGN_STYLE_NORMAL};
+    private static final int[] SHADOW_SIDES = {0, 0x1111};
+
+    private static final int PHASE_INFLATE = 0;
+    private static final int PHASE_MEASURE = 1;
+    private static final int PHASE_LAYOUT = 2;
+    private static final int PHASE_DRAW = 3;
+    private static final String[] PHASES = {"inflate", "measure", "layout", "draw"};
+
+    private com.sun.management.ThreadMXBean mBean;
+    private long mThreadId;
+
+    @Before
+    public void setUp() throws Exception {
+        mBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        mThreadId = Thread.currentThread().getId();
+        OivStyle.clear();
+    }
+
+    private AttributeSet attrs(int gravity, int chainStyle, int alignStyle, int shadowSide) {
+        return Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.oiv_bodyText, "Body text long enough to wrap on the narrowest width")
+                .addAttribute(R.attr.oiv_briefText, "Brief")
+                .addAttribute(R.attr.oiv_bodyTextSize, "32px")
+                .addAttribute(R.attr.oiv_briefTextSize, "24px")
+                .addAttribute(R.attr.oiv_drawablePadding, "12px")
+                .addAttribute(R.attr.oiv_textInterval, "6px")
+                .addAttribute(R.attr.oiv_startDrawable, "@android:drawable/ic_menu_add")
+                .addAttribute(R.attr.oiv_endDrawable, "@android:drawable/ic_menu_more")
+                .addAttribute(R.attr.oiv_dividerDrawable, "@android:drawable/divider_horizontal_bright")
+                .addAttribute(R.attr.oiv_gravity, String.valueOf(gravity))
+                .addAttribute(R.attr.oiv_drawableChainStyle, String.valueOf(chainStyle))
+                .addAttribute(R.attr.oiv_drawableAlignStyle, String.valueOf(alignStyle))
+                .addAttribute(R.attr.oiv_shadowSide, String.valueOf(shadowSide))
+                .addAttribute(R.attr.oiv_shadowRadius, "8px")
+                .build();
+    }
+
+    @Test
+    public void lifecycleAcrossAllStyleCombinations() throws Exception {
+        long[] totalNanos = new long[PHASES.length];
+        long[] totalBytes = new long[PHASES.length];
+        long[] totalOps = new long[PHASES.length];
+        StringBuilder report = new StringBuilder(String.format(Locale.US, "%-8s %-6s %-6s %-6s %-8s %12s %12s%n",
+                "gravity", "chain", "align", "shadow", "phase", "ns/op", "B/op"));
+        for (int gravity : GRAVITIES) {
+            for (int chainStyle : CHAIN_STYLES) {
+                for (int alignStyle : ALIGN_STYLES) {
+                    for (int shadowSide : SHADOW_SIDES) {
+                        long[] nanos = new long[PHASES.length];
+                        long[] bytes = new long[PHASES.length];
+                        long[] ops = new long[PHASES.length];
+                        AttributeSet attrs = attrs(gravity, chainStyle, alignStyle, shadowSide);
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            runLifecycle(attrs, nanos, bytes, ops);
+                        }
+                        for (int phase = 0; phase < PHASES.length; phase++) {
+                            report.append(String.format(Locale.US, "0x%-6x %-6d 0x%-4x %-6s %-8s %12d %12d%n",
+                                    gravity, chainStyle, alignStyle, shadowSide != 0, PHASES[phase],
+                                    nanos[phase] / ops[phase], bytes[phase] / ops[phase]));
+                            totalNanos[phase] += nanos[phase];
+                            totalBytes[phase] += bytes[phase];
+                            totalOps[phase] += ops[phase];
+                        }
+                    }
+                }
+            }
+        }
+        report.append("-- overall --\n");
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            assertTrue(totalOps[phase] > 0);
+            report.append(String.format(Locale.US, "%-8s %12d ns/op %12d B/op%n",
+                    PHASES[phase], totalNanos[phase] / totalOps[phase], totalBytes[phase] / totalOps[phase]));
+        }
+        System.out.print(report);
+    }
+
+    private void runLifecycle(AttributeSet attrs, long[] nanos, long[] bytes, long[] ops) {
+        long startBytes = mBean.getThreadAllocatedBytes(mThreadId);
+        long start = System.nanoTime();
+        OperableItemView view = new OperableItemView(RuntimeEnvironment.application, attrs);
+        record(PHASE_INFLATE, start, startBytes, nanos, bytes, ops);
+
+        for (int width : WIDTHS) {
+            startBytes = mBean.getThreadAllocatedBytes(mThreadId);
+            start = System.nanoTime();
+            view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            record(PHASE_MEASURE, start, startBytes, nanos, bytes, ops);
+        }
+        assertTrue(view.getMeasuredHeight() > 0);
+
+        startBytes = mBean.getThreadAllocatedBytes(mThreadId);
+        start = System.nanoTime();
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        record(PHASE_LAYOUT, start, startBytes, nanos, bytes, ops);
+
+        // Robolectric的View.draw只绘制背景，直接调用onDraw；画布与位图会记录所有绘制调用，每次都重新创建
+        Canvas canvas = new Canvas(Bitmap.createBitmap(1080, 400, Bitmap.Config.ARGB_8888));
+        startBytes = mBean.getThreadAllocatedBytes(mThreadId);
+        start = System.nanoTime();
+        view.onDraw(canvas);
+        record(PHASE_DRAW, start, startBytes, nanos, bytes, ops);
+    }
+
+    private void record(int phase, long start, long startBytes, long[] nanos, long[] bytes, long[] ops) {
+        nanos[phase] += System.nanoTime() - start;
+        bytes[phase] += mBean.getThreadAllocatedBytes(mThreadId) - startBytes;
+        ops[phase]++;
+    }
+}
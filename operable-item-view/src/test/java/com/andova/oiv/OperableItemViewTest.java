@@ -0,0 +1,431 @@
+package com.andova.oiv;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.GradientDrawable;
+import android.util.AttributeSet;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test for {@link OperableItemView}, which will execute on the development machine (host).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 25)
+public class OperableItemViewTest {
+    private OperableItemView mView;
+
+    @Before
+    public void setUp() throws Exception {
+        mView = new OperableItemView(RuntimeEnvironment.application, null);
+        mView.setBodyText("body");
+        mView.setBriefText("brief");
+    }
+
+    private void measure(int widthPx) {
+        mView.measure(View.MeasureSpec.makeMeasureSpec(widthPx, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+    }
+
+    @Test
+    public void repeatedMeasureAtSameWidth_doesNotRelayout() throws Exception {
+        measure(480);
+        int builds = mView.getStaticLayoutBuildCount();
+        measure(480);
+        measure(480);
+        assertEquals(builds, mView.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void widthChange_relayoutsBothTexts() throws Exception {
+        measure(480);
+        int builds = mView.getStaticLayoutBuildCount();
+        measure(320);
+        assertEquals(builds + 2, mView.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void textChange_relayoutsOnlyThatText() throws Exception {
+        measure(480);
+        int builds = mView.getStaticLayoutBuildCount();
+        mView.setBodyText("another body");
+        measure(480);
+        assertEquals(builds + 1, mView.getStaticLayoutBuildCount());
+        mView.setBriefTextSize(40);
+        measure(480);
+        assertEquals(builds + 2, mView.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void batchedEdit_requestsLayoutOnceOnApply() throws Exception {
+        measure(480);
+        int requests = mView.getRequestLayoutCount();
+        int builds = mView.getStaticLayoutBuildCount();
+        OperableItemView.Editor editor = mView.edit()
+                .setBodyText("new body")
+                .setBriefText("new brief")
+                .setBodyTextSize(30)
+                .setBriefTextSize(20)
+                .setBodyTextColor(0xff00ff00);
+        assertEquals(requests, mView.getRequestLayoutCount());
+        editor.apply();
+        editor.apply();
+        assertEquals(requests + 1, mView.getRequestLayoutCount());
+        measure(480);
+        assertEquals(builds + 2, mView.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void colourOnlyEdit_doesNotRequestLayout() throws Exception {
+        int requests = mView.getRequestLayoutCount();
+        mView.edit().setBodyTextColor(0xff00ff00).setBriefTextColor(0xff0000ff).apply();
+        assertEquals(requests, mView.getRequestLayoutCount());
+    }
+
+    @Test
+    public void droppedEdit_changesNothingAndDoesNotBlockLaterSetters() throws Exception {
+        measure(480);
+        int requests = mView.getRequestLayoutCount();
+        int applied = mView.getAppliedUpdateCount();
+        mView.edit().setBodyText("dropped").setBriefTextSize(40);
+        assertEquals(requests, mView.getRequestLayoutCount());
+        assertEquals(applied, mView.getAppliedUpdateCount());
+        mView.setBodyText("changed");
+        assertEquals(requests + 1, mView.getRequestLayoutCount());
+    }
+
+    @Test
+    public void equalValues_areSuppressed() throws Exception {
+        measure(480);
+        int requests = mView.getRequestLayoutCount();
+        int builds = mView.getStaticLayoutBuildCount();
+        int applied = mView.getAppliedUpdateCount();
+        mView.setBodyText("body");
+        mView.setBriefText("brief");
+        mView.setBodyTextColor(0xff000000);
+        mView.setBriefTextSize(28);
+        measure(480);
+        assertEquals(requests, mView.getRequestLayoutCount());
+        assertEquals(builds, mView.getStaticLayoutBuildCount());
+        assertEquals(applied, mView.getAppliedUpdateCount());
+        assertEquals(4, mView.getSuppressedUpdateCount());
+        mView.setBodyText("changed");
+        assertEquals(applied + 1, mView.getAppliedUpdateCount());
+    }
+
+    @Test
+    public void colourChange_doesNoLineBreaking() throws Exception {
+        measure(480);
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        int requests = mView.getRequestLayoutCount();
+        int builds = mView.getStaticLayoutBuildCount();
+        mView.setBodyTextColor(0xffff0000);
+        mView.setBriefTextColor(0x80ffffff);
+        mView.enableBodyText(false, 0.5f);
+        mView.enableBriefText(false, 0.25f);
+        measure(480);
+        assertEquals(requests, mView.getRequestLayoutCount());
+        assertEquals(builds, mView.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void readyPrecomputedText_isUsedWithoutLineBreaking() throws Exception {
+        DeferredExecutor executor = new DeferredExecutor();
+        OivPrecomputedText text = OivPrecomputedText.create(mView.getPrecomputedTextParams(),
+                "prefetched body", "prefetched brief", 480, executor);
+        executor.runAll();
+        mView.setPrecomputedText(text);
+        int builds = mView.getStaticLayoutBuildCount();
+        measure(480);
+        assertEquals(builds, mView.getStaticLayoutBuildCount());
+        assertEquals(1, mView.getPrecomputedTextHitCount());
+    }
+
+    @Test
+    public void pendingPrecomputedText_fallsBackToSyncLayout() throws Exception {
+        DeferredExecutor executor = new DeferredExecutor();
+        OivPrecomputedText text = OivPrecomputedText.create(mView.getPrecomputedTextParams(),
+                "prefetched body", "prefetched brief", 480, executor);
+        mView.setPrecomputedText(text);
+        int builds = mView.getStaticLayoutBuildCount();
+        measure(480);
+        assertEquals(builds + 2, mView.getStaticLayoutBuildCount());
+        assertEquals(0, mView.getPrecomputedTextHitCount());
+    }
+
+    @Test
+    public void rebindWithEmptyBrief_stillUsesPrecomputedText() throws Exception {
+        DeferredExecutor executor = new DeferredExecutor();
+        OivPrecomputedText first = OivPrecomputedText.create(mView.getPrecomputedTextParams(),
+                "first body", "first brief", 480, executor);
+        OivPrecomputedText second = OivPrecomputedText.create(mView.getPrecomputedTextParams(),
+                "second body", "", 480, executor);
+        executor.runAll();
+        mView.setPrecomputedText(first);
+        measure(480);
+        int builds = mView.getStaticLayoutBuildCount();
+        mView.setPrecomputedText(second);
+        measure(480);
+        assertEquals(builds, mView.getStaticLayoutBuildCount());
+        assertEquals(2, mView.getPrecomputedTextHitCount());
+    }
+
+    @Test
+    public void precomputedTextForOtherWidth_fallsBackToSyncLayout() throws Exception {
+        DeferredExecutor executor = new DeferredExecutor();
+        OivPrecomputedText text = OivPrecomputedText.create(mView.getPrecomputedTextParams(),
+                "prefetched body", "prefetched brief", 320, executor);
+        executor.runAll();
+        mView.setPrecomputedText(text);
+        measure(480);
+        assertEquals(0, mView.getPrecomputedTextHitCount());
+    }
+
+    @Test
+    public void repeatedDraw_doesNotResolveGeometry() throws Exception {
+        measure(480);
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mView.enableBodyText(false, 0.25f);
+        int updates = mView.getGeometryUpdateCount();
+        Canvas canvas = new Canvas(Bitmap.createBitmap(480, 200, Bitmap.Config.ARGB_8888));
+        mView.onDraw(canvas);
+        mView.enableBodyText(false, 0.5f);
+        mView.onDraw(canvas);
+        mView.enableBodyText(false, 0.75f);
+        mView.onDraw(canvas);
+        assertEquals(updates, mView.getGeometryUpdateCount());
+    }
+
+    private OperableItemView paddedView(int shadowSide) {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(android.R.attr.paddingLeft, "10px")
+                .addAttribute(android.R.attr.paddingTop, "10px")
+                .addAttribute(android.R.attr.paddingRight, "10px")
+                .addAttribute(android.R.attr.paddingBottom, "10px")
+                .addAttribute(R.attr.oiv_bodyText, "body")
+                .addAttribute(R.attr.oiv_shadowSide, String.valueOf(shadowSide))
+                .addAttribute(R.attr.oiv_shadowRadius, "8px")
+                .addAttribute(R.attr.oiv_shadowDx, "0px")
+                .addAttribute(R.attr.oiv_shadowDy, "4px")
+                .build();
+        OperableItemView view = new OperableItemView(RuntimeEnvironment.application, attrs);
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return view;
+    }
+
+    @Test
+    public void shadow_addsInsetsWithoutOverwritingPadding() throws Exception {
+        OperableItemView plain = paddedView(0);
+        OperableItemView shadowed = paddedView(0x1111);
+        assertEquals(10, shadowed.getPaddingLeft());
+        assertEquals(10, shadowed.getPaddingTop());
+        assertEquals(10, shadowed.getPaddingRight());
+        assertEquals(10, shadowed.getPaddingBottom());
+        // 上下各多出阴影半径 + 5，下方再加上纵向偏移
+        assertEquals(plain.getMeasuredHeight() + 30, shadowed.getMeasuredHeight());
+    }
+
+    @Test
+    public void rapidToggles_reuseOneAnimator() throws Exception {
+        measure(480);
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        for (int i = 0; i < 50; i++) {
+            mView.enableBodyText(i % 2 == 0, true);
+            mView.enableBriefText(i % 2 == 0, true);
+        }
+        assertEquals(1, mView.getAnimatorCreateCount());
+        assertTrue(mView.isAnimationRunning());
+    }
+
+    @Test
+    public void detach_cancelsAnimator() throws Exception {
+        measure(480);
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mView.enableBodyText(false, true);
+        assertTrue(mView.isAnimationRunning());
+        mView.onDetachedFromWindow();
+        assertFalse(mView.isAnimationRunning());
+    }
+
+    @Test
+    public void nonAnimatedToggle_snapsToEndState() throws Exception {
+        measure(480);
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        int opaque = mView.getDrawnBodyTextColor();
+        mView.enableBodyText(false, 0.5f);
+        mView.enableBodyText(true, false);
+        assertEquals(opaque, mView.getDrawnBodyTextColor());
+        mView.enableBodyText(false, true);
+        mView.enableBodyText(true, true);
+        mView.enableBodyText(false, false);
+        assertFalse(mView.isAnimationRunning());
+        assertEquals(0, mView.getDrawnBodyTextColor() >>> 24);
+    }
+
+    @Test
+    public void postedPercents_applyOnlyLatestPerFrame() throws Exception {
+        Robolectric.setupActivity(Activity.class).setContentView(mView);
+        ShadowLooper.pauseMainLooper();
+        for (int i = 1; i <= 10; i++) mView.postBodyTextPercent(false, i * 0.05f);
+        assertEquals(9, mView.getDroppedPercentUpdateCount());
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(9, mView.getDroppedPercentUpdateCount());
+
+        // 帧内已应用0.5，不可见的微小变化被跳过
+        mView.postBodyTextPercent(false, 0.5f + 0.001f);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(10, mView.getDroppedPercentUpdateCount());
+
+        mView.postBodyTextPercent(false, 1f);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(10, mView.getDroppedPercentUpdateCount());
+    }
+
+    @Test
+    public void booleanToggle_resetsAppliedPercent() throws Exception {
+        Robolectric.setupActivity(Activity.class).setContentView(mView);
+        ShadowLooper.pauseMainLooper();
+        mView.postBodyTextPercent(false, 0.5f);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        mView.enableBodyText(true, false);
+        mView.enableBodyText(false, false);
+
+        // 开关后控件已回到终态，同样的百分比需要重新应用
+        mView.postBodyTextPercent(false, 0.5f);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(0, mView.getDroppedPercentUpdateCount());
+    }
+
+    @Test
+    public void repeatedMeasure_servedFromCacheUntilContentChanges() throws Exception {
+        measure(480);
+        int height = mView.getMeasuredHeight();
+        measure(480);
+        measure(480);
+        assertEquals(2, mView.getMeasureCacheHitCount());
+        assertEquals(height, mView.getMeasuredHeight());
+
+        mView.setBodyTextSize(80);
+        measure(480);
+        assertEquals(2, mView.getMeasureCacheHitCount());
+        measure(480);
+        assertEquals(3, mView.getMeasureCacheHitCount());
+    }
+
+    @Test
+    public void exactPolicy_defersTextLayoutToLayoutPass() throws Exception {
+        OperableItemView view = OperableItemView.create(RuntimeEnvironment.application, new OivStyle.Builder()
+                .setBodyText("body")
+                .setBriefText("brief")
+                .setMeasurePolicy(OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_EXACT)
+                .build());
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(96, View.MeasureSpec.AT_MOST));
+        assertEquals(0, view.getStaticLayoutBuildCount());
+        assertEquals(480, view.getMeasuredWidth());
+        assertEquals(96, view.getMeasuredHeight());
+        view.layout(0, 0, 480, 96);
+        assertEquals(2, view.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void backgroundPolicy_respectsMeasureSpec() throws Exception {
+        OperableItemView view = OperableItemView.create(RuntimeEnvironment.application, new OivStyle.Builder()
+                .setMeasurePolicy(OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_BACKGROUND)
+                .build());
+        GradientDrawable background = new GradientDrawable();
+        background.setSize(200, 100);
+        view.setBackground(background);
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(60, View.MeasureSpec.AT_MOST));
+        assertEquals(480, view.getMeasuredWidth());
+        assertEquals(60, view.getMeasuredHeight());
+        assertEquals(0, view.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void cachedMeasure_keepsDeferredTextLayout() throws Exception {
+        OperableItemView exact = OperableItemView.create(RuntimeEnvironment.application, new OivStyle.Builder()
+                .setBodyText("body")
+                .setBriefText("brief")
+                .setMeasurePolicy(OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_EXACT)
+                .build());
+        OperableItemView background = OperableItemView.create(RuntimeEnvironment.application, new OivStyle.Builder()
+                .setBodyText("body")
+                .setBriefText("brief")
+                .setMeasurePolicy(OperableItemView.MeasurePolicy.OIV_MEASURE_POLICY_BACKGROUND)
+                .build());
+        GradientDrawable drawable = new GradientDrawable();
+        drawable.setSize(200, 100);
+        background.setBackground(drawable);
+        for (int i = 0; i < 2; i++) {
+            // 绕过View自身的测量缓存，让第二次测量走到控件的测量缓存
+            exact.forceLayout();
+            background.forceLayout();
+            exact.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(96, View.MeasureSpec.AT_MOST));
+            background.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.AT_MOST),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        }
+        assertEquals(1, exact.getMeasureCacheHitCount());
+        assertEquals(1, background.getMeasureCacheHitCount());
+        assertEquals(0, exact.getStaticLayoutBuildCount());
+        assertEquals(0, background.getStaticLayoutBuildCount());
+    }
+
+    @Test
+    public void singleLineText_usesBoringLayout() throws Exception {
+        measure(480);
+        assertEquals(2, mView.getStaticLayoutBuildCount());
+        assertEquals(2, mView.getBoringLayoutCount());
+
+        mView.setBodyText("first line\nsecond line");
+        measure(480);
+        assertEquals(3, mView.getStaticLayoutBuildCount());
+        assertEquals(2, mView.getBoringLayoutCount());
+    }
+
+    @Test
+    public void maxLines_rebuildsOnlyAffectedText() throws Exception {
+        measure(480);
+        int builds = mView.getStaticLayoutBuildCount();
+        int suppressed = mView.getSuppressedUpdateCount();
+        mView.setBodyMaxLines(2);
+        mView.setBodyMaxLines(2);
+        measure(480);
+        assertEquals(builds + 1, mView.getStaticLayoutBuildCount());
+        assertEquals(suppressed + 1, mView.getSuppressedUpdateCount());
+    }
+
+    private static class DeferredExecutor implements Executor {
+        private final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mTasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : mTasks) task.run();
+            mTasks.clear();
+        }
+    }
+}